@@ -0,0 +1,33 @@
+package com.skylink.benchmark;
+
+import com.skylink.entity.Role;
+import com.skylink.entity.User;
+import com.skylink.service.JwtService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Shared setup for benchmarks that exercise services outside a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String EMAIL = "bench@example.com";
+    static final String SECRET = "BenchmarkSecretKeyForJwtAuth1234567890123456";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(int cacheMaxSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", cacheMaxSize);
+        return jwtService;
+    }
+
+    static User user() {
+        User user = new User("Bench User", EMAIL, "1234567890", "unused", Role.CUSTOMER);
+        user.setId(1L);
+        user.setActive(true);
+        return user;
+    }
+}
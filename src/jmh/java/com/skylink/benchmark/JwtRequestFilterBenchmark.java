@@ -0,0 +1,90 @@
+package com.skylink.benchmark;
+
+import com.skylink.config.JwtRequestFilter;
+import com.skylink.entity.User;
+import com.skylink.service.JwtService;
+import com.skylink.service.TokenRevocationService;
+import com.skylink.service.TokenVersionService;
+import com.skylink.service.UserService;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Security overhead added to an authenticated request by JwtRequestFilter, with a no-op
+ * filter chain. Collaborators that would hit the database are mocked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class JwtRequestFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    @Param({"0", "10000"})
+    public int claimsCacheMaxSize;
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private JwtRequestFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService(claimsCacheMaxSize);
+        User user = BenchmarkFixtures.user();
+
+        UserService userService = Mockito.mock(UserService.class);
+        when(userService.loadUserByUsername(anyString())).thenReturn(user);
+        TokenVersionService tokenVersionService = Mockito.mock(TokenVersionService.class);
+        when(tokenVersionService.isTokenCurrent(anyLong(), any())).thenReturn(true);
+        TokenRevocationService tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userService", userService);
+        ReflectionTestUtils.setField(filter, "tokenVersionService", tokenVersionService);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", statelessPrincipal);
+
+        request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setServletPath("/api/users/1");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object filterAuthenticatedRequest() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        // The filter only authenticates when the context is empty
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,62 @@
+package com.skylink.benchmark;
+
+import com.skylink.config.EncoderConfig;
+import com.skylink.entity.Role;
+import com.skylink.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login latency through DaoAuthenticationProvider for each BCrypt cost, used to pick
+ * password.bcrypt.strength against the login throughput target.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class LoginCostBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"10", "11", "12", "13"})
+    public int cost;
+
+    private DaoAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = EncoderConfig.createPasswordEncoder(cost);
+        String storedHash = encoder.encode(PASSWORD);
+
+        provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(email -> {
+            User user = new User("Bench User", EMAIL, "1234567890", storedHash, Role.CUSTOMER);
+            user.setId(1L);
+            return user;
+        });
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+    }
+}
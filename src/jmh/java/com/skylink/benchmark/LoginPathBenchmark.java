@@ -0,0 +1,110 @@
+package com.skylink.benchmark;
+
+import com.skylink.config.EncoderConfig;
+import com.skylink.dao.UserRepository;
+import com.skylink.dto.LoginRequest;
+import com.skylink.dto.LoginResponse;
+import com.skylink.dto.UserResponse;
+import com.skylink.entity.Role;
+import com.skylink.entity.User;
+import com.skylink.service.JwtService;
+import com.skylink.service.PrincipalCache;
+import com.skylink.service.TokenRevocationService;
+import com.skylink.service.TokenVersionService;
+import com.skylink.service.UserService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login throughput of the previous AuthController path (authenticate, then a second
+ * lookup by email for the profile) against the single-lookup UserService.authenticate.
+ * The repository simulates a database round trip; BCrypt runs at the minimum cost so
+ * the difference comes from the query count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class LoginPathBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"0", "200", "1000"})
+    public long queryLatencyMicros;
+
+    private UserService userService;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = EncoderConfig.createPasswordEncoder(4);
+        String storedHash = encoder.encode(PASSWORD);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryLatencyMicros));
+            User user = new User("Bench User", EMAIL, "1234567890", storedHash, Role.CUSTOMER);
+            user.setId(1L);
+            return Optional.of(user);
+        });
+        when(userRepository.findResponseByEmail(anyString())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryLatencyMicros));
+            return Optional.of(new UserResponse(1L, "Bench User", EMAIL, "1234567890", Role.CUSTOMER, true,
+                    null, null));
+        });
+
+        JwtService jwtService = BenchmarkFixtures.jwtService(10000);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        ProviderManager authenticationManager = new ProviderManager(provider);
+
+        // Principal cache disabled so every login is a cold lookup
+        userService = new UserService(userRepository, encoder, authenticationManager, jwtService,
+                new TokenVersionService(0), new PrincipalCache(0, 0), new TokenRevocationService());
+        provider.setUserDetailsService(userService);
+
+        request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public void loginThenLookupProfile(Blackhole blackhole) {
+        String token = userService.login(request);
+        UserResponse user = userService.getUserByEmail(request.getEmail());
+        blackhole.consume(token);
+        blackhole.consume(user);
+    }
+
+    @Benchmark
+    public LoginResponse loginSingleLookup() {
+        return userService.authenticate(request);
+    }
+}
@@ -0,0 +1,120 @@
+package com.skylink.config;
+
+import com.skylink.exception.ServiceUnavailableException;
+import com.skylink.service.StatsProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing and verification on a dedicated, size-limited pool so that a burst
+ * of logins cannot occupy every CPU. When the pool and its queue are full the call fails
+ * fast with {@link ServiceUnavailableException} (HTTP 503) instead of queueing further.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, StatsProvider {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the hash prefix, cheap enough to run on the caller
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                long waited = startedAt - submittedAt;
+                queueWaitNanos.add(waited);
+                maxQueueWaitNanos.accumulate(waited);
+                try {
+                    return work.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - startedAt);
+                    hashCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Authentication service is busy, please retry shortly", e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long count = hashCount.sum();
+        stats.put("password.hashing.count", count);
+        stats.put("password.hashing.avgHashMicros",
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(hashNanos.sum() / count));
+        stats.put("password.hashing.avgQueueWaitMicros",
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(queueWaitNanos.sum() / count));
+        stats.put("password.hashing.maxQueueWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxQueueWaitNanos.get()));
+        stats.put("password.hashing.queueDepth", (long) executor.getQueue().size());
+        stats.put("password.hashing.activeThreads", (long) executor.getActiveCount());
+        stats.put("password.hashing.rejected", rejected.sum());
+        return stats;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
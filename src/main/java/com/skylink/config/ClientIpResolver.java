@@ -0,0 +1,130 @@
+package com.skylink.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the address of the client behind our load balancers. X-Forwarded-For is walked from
+ * the right, skipping hops that are trusted proxies; the first untrusted hop is the client. The
+ * header is ignored unless the connection itself comes from a trusted proxy, so clients cannot
+ * pick their own address by sending one.
+ */
+@Component
+public class ClientIpResolver {
+
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<Subnet> trustedProxies = new ArrayList<>();
+
+    public ClientIpResolver(@Value("${auth.trusted-proxies:127.0.0.1,::1,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+                            List<String> trustedProxies) {
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                this.trustedProxies.add(Subnet.parse(proxy.trim()));
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        if (!isTrusted(client)) {
+            return client;
+        }
+        String header = request.getHeader(FORWARDED_FOR);
+        if (header == null) {
+            return client;
+        }
+        String[] hops = header.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            byte[] address = parseLiteral(hop);
+            if (address == null) {
+                // Garbage from an untrusted hop; limit by the last proxy we trust instead
+                return client;
+            }
+            client = hop;
+            if (!isTrusted(address)) {
+                return client;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String ip) {
+        byte[] address = parseLiteral(ip);
+        return address != null && isTrusted(address);
+    }
+
+    private boolean isTrusted(byte[] address) {
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal without ever resolving a host name, or returns
+     * {@code null}.
+     */
+    static byte[] parseLiteral(String ip) {
+        if (ip == null || ip.isEmpty()
+                || !(ip.indexOf(':') >= 0 || ip.chars().allMatch(c -> c == '.' || Character.isDigit(c)))) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static final class Subnet {
+        private final byte[] network;
+        private final int prefixLength;
+
+        private Subnet(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        static Subnet parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            String ip = slash < 0 ? cidr : cidr.substring(0, slash);
+            byte[] network = parseLiteral(ip);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy: " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy: " + cidr);
+            }
+            return new Subnet(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.skylink.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Active only when spring.datasource.replica.url is set; without it the auto-configured
+ * single DataSource is used and read-only transactions simply run on the primary.
+ * Replica credentials and driver default to the primary's when not given.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, Environment environment) throws Exception {
+        DataSourceProperties replica = Binder.get(environment)
+                .bind("spring.datasource.replica", DataSourceProperties.class)
+                .get();
+        if (replica.getUsername() == null) {
+            replica.setUsername(primary.getUsername());
+            replica.setPassword(primary.getPassword());
+        }
+        if (replica.getDriverClassName() == null) {
+            replica.setDriverClassName(primary.getDriverClassName());
+        }
+        replica.afterPropertiesSet();
+        return replica.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+}
@@ -1,15 +1,43 @@
 package com.skylink.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class EncoderConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    @Value("${password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // 0 means one hashing thread per available processor
+    @Value("${password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${password.hashing.queue-capacity:100}")
+    private int hashingQueueCapacity;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(createPasswordEncoder(bcryptStrength), threads, hashingQueueCapacity);
+    }
+
+    /**
+     * New hashes are stored as {bcrypt}... at the given cost. Hashes stored without a prefix
+     * (before this scheme) or under another cost still match and are re-encoded on the next
+     * successful login through UserDetailsPasswordService.
+     */
+    public static PasswordEncoder createPasswordEncoder(int bcryptStrength) {
+        PasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
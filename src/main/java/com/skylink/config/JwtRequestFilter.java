@@ -1,19 +1,28 @@
 package com.skylink.config;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.skylink.entity.Role;
 import com.skylink.service.JwtService;
+import com.skylink.service.TokenRevocationService;
+import com.skylink.service.TokenVersionService;
 import com.skylink.service.UserService;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -30,36 +39,62 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // When enabled the principal is built from the token claims instead of a user lookup
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
+
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            Arrays.stream(SecurityConfig.PUBLIC_ENDPOINTS)
+                    .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern))
+                    .toList());
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PUBLIC_ROUTES.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                    FilterChain chain) throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
+        Claims claims = null;
         String jwtToken = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtService.extractUsername(jwtToken);
+                // Verify the token once and reuse its claims for the rest of the request
+                claims = jwtService.parseClaims(jwtToken);
+                // Refresh tokens are only accepted by /api/auth/refresh
+                if (jwtService.isRefreshToken(claims)
+                        || tokenRevocationService.isRevoked(jwtService.extractTokenId(claims))) {
+                    claims = null;
+                }
             } catch (IllegalArgumentException e) {
-                logger.error("Unable to get JWT Token");
+                logger.debug("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
-                logger.error("JWT Token has expired");
+                logger.debug("JWT Token has expired");
             }
-        } else {
-            logger.warn("JWT Token does not begin with Bearer String");
         }
 
         // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.userService.loadUserByUsername(username);
+            UserDetails userDetails = statelessPrincipal
+                    ? buildPrincipalFromClaims(claims)
+                    : this.userService.loadUserByUsername(claims.getSubject());
 
             // if token is valid configure Spring Security to manually set authentication
-            if (jwtService.validateToken(jwtToken, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled() && jwtService.validateClaims(claims, userDetails)) {
 
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -73,4 +108,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails buildPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String role = claims.get("role", String.class);
+
+        // Rejects tokens of deactivated users and tokens issued before a password change
+        if (role == null || !tokenVersionService.isTokenCurrent(userId, jwtService.extractTokenVersion(claims))) {
+            return null;
+        }
+        return new JwtUserPrincipal(userId, claims.getSubject(), claims.get("name", String.class), Role.valueOf(role));
+    }
+}
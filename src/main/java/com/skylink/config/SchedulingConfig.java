@@ -0,0 +1,34 @@
+package com.skylink.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    public static final String TIMING_WHEEL_SCHEDULER = "timingWheelScheduler";
+
+    /**
+     * Default scheduler for reloads, rebuilds and purges, sized by spring.task.scheduling.pool.size.
+     * Declared here because defining any TaskScheduler bean turns off Boot's default one.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs the one-second timing wheel ticks, so that expiring subscriptions and escalating
+     * SLA breaches never queue behind a long reload or index rebuild.
+     */
+    @Bean(TIMING_WHEEL_SCHEDULER)
+    public ThreadPoolTaskScheduler timingWheelScheduler(@Value("${scheduling.timing-wheel.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("timing-wheel-");
+        return scheduler;
+    }
+}
@@ -24,6 +24,21 @@ import java.util.Arrays;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    // Routes open to anonymous users; JwtRequestFilter skips these entirely
+    static final String[] PUBLIC_ENDPOINTS = {
+            "/api/auth/**",
+            "/api/plans/active",
+            "/api/faqs/active",
+            "/api/faqs/category/**",
+            "/api/faqs/categories",
+            "/api/faqs/search",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/swagger-resources/**",
+            "/swagger-resources",
+            "/webjars/**"
+    };
+
     private final UserService userService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtRequestFilter jwtRequestFilter;
@@ -44,6 +59,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-encodes hashes stored under an old scheme or cost after a successful login
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
@@ -56,20 +73,7 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors().and().csrf().disable()
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/plans/active").permitAll()
-                        .requestMatchers("/api/faqs/active").permitAll()
-                        .requestMatchers("/api/faqs/category/**").permitAll()
-                        .requestMatchers("/api/faqs/categories").permitAll()
-                        .requestMatchers("/api/faqs/search").permitAll()
-                        .requestMatchers(
-                        	    "/swagger-ui/**",
-                        	    "/v3/api-docs/**",
-                        	    "/swagger-resources/**",
-                        	    "/swagger-resources",
-                        	    "/webjars/**"
-                        	).permitAll()
-
+                        .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling().authenticationEntryPoint(jwtAuthenticationEntryPoint)
@@ -1,12 +1,14 @@
 package com.skylink.controller;
 
 import com.skylink.dto.AnalyticsResponse;
+import com.skylink.dto.ComplaintSlaResponse;
 import com.skylink.service.AnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -41,4 +43,15 @@ public class AnalyticsController {
         Map<String, Long> complaintStats = analyticsService.getComplaintAnalytics();
         return ResponseEntity.ok(complaintStats);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/complaints/sla")
+    public ResponseEntity<List<ComplaintSlaResponse>> getComplaintSlaReport() {
+        return ResponseEntity.ok(analyticsService.getComplaintSlaReport());
+    }
+
+    @GetMapping("/performance")
+    public ResponseEntity<Map<String, Long>> getPerformanceAnalytics() {
+        Map<String, Long> performanceStats = analyticsService.getPerformanceAnalytics();
+        return ResponseEntity.ok(performanceStats);
+    }
+}
@@ -1,10 +1,14 @@
 package com.skylink.controller;
 
+import com.skylink.config.ClientIpResolver;
 import com.skylink.dto.LoginRequest;
 import com.skylink.dto.LoginResponse;
+import com.skylink.dto.RefreshTokenRequest;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
+import com.skylink.service.LoginRateLimiter;
 import com.skylink.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,6 +23,12 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @PostMapping("/signup")
     public ResponseEntity<UserResponse> signup(@Valid @RequestBody SignupRequest request) {
         UserResponse user = userService.signup(request);
@@ -26,21 +36,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        String token = userService.login(request);
-        UserResponse user = userService.getUserByEmail(request.getEmail());
-        
-        LoginResponse response = new LoginResponse();
-        response.setToken(token);
-        response.setUser(user);
-        
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest httpRequest) {
+        loginRateLimiter.checkLogin(request.getEmail(), clientIpResolver.resolve(httpRequest));
+        LoginResponse response = userService.authenticate(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(userService.refresh(request.getRefreshToken()));
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
-        // In a stateless JWT implementation, logout is handled client-side
-        // by removing the token from storage
+    public ResponseEntity<String> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                         @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        userService.logout(accessToken, request != null ? request.getRefreshToken() : null);
         return ResponseEntity.ok("Logged out successfully");
     }
 }
\ No newline at end of file
@@ -1,27 +1,41 @@
 package com.skylink.controller;
 
+import com.skylink.dto.ComplaintBatchResponse;
+import com.skylink.dto.ComplaintBatchUpdateRequest;
 import com.skylink.dto.ComplaintRequest;
 import com.skylink.dto.ComplaintResponse;
+import com.skylink.dto.CursorPage;
+import com.skylink.dto.IncidentResponse;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Priority;
+import com.skylink.service.ComplaintBatchService;
 import com.skylink.service.ComplaintService;
+import com.skylink.service.ExportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/complaints")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class ComplaintController {
 
     @Autowired
     private ComplaintService complaintService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ComplaintBatchService complaintBatchService;
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<ComplaintResponse> createComplaint(@Valid @RequestBody ComplaintRequest request) {
@@ -38,9 +52,17 @@ public class ComplaintController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ComplaintResponse>> getAllComplaints() {
-        List<ComplaintResponse> complaints = complaintService.getAllComplaints();
-        return ResponseEntity.ok(complaints);
+    public ResponseEntity<List<ComplaintResponse>> getAllComplaints(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return complaintService.getAllComplaints(after, size).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportComplaints(@RequestParam(defaultValue = "ndjson") String format,
+                                                       @RequestParam(defaultValue = "false") boolean gzip) {
+        return ExportResponses.stream("complaints", format, gzip, exportService::exportComplaints);
     }
 
     @GetMapping("/status/{status}")
@@ -57,6 +79,14 @@ public class ComplaintController {
         return ResponseEntity.ok(complaints);
     }
 
+    @PostMapping("/claim-next")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ComplaintResponse> claimNextComplaint(@AuthenticationPrincipal(expression = "id") Long agentId) {
+        return complaintService.claimNextComplaint(agentId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @complaintService.getComplaintById(#id).userId == authentication.principal.id")
     public ResponseEntity<ComplaintResponse> getComplaintById(@PathVariable Long id) {
@@ -81,11 +111,43 @@ public class ComplaintController {
         return ResponseEntity.ok(complaint);
     }
 
+    @PostMapping("/batch/update")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ComplaintBatchResponse> updateComplaints(@Valid @RequestBody ComplaintBatchUpdateRequest request) {
+        return ResponseEntity.ok(complaintBatchService.updateComplaints(request));
+    }
+
+    @GetMapping("/incidents")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<IncidentResponse>> getOpenIncidents(
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return ResponseEntity.ok(complaintService.getOpenIncidents(size));
+    }
+
+    @GetMapping("/incidents/{incidentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ComplaintResponse>> getIncidentComplaints(
+            @PathVariable Long incidentId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return complaintService.getIncidentComplaints(incidentId, after, size).toResponseEntity();
+    }
+
+    @PutMapping("/incidents/{incidentId}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ComplaintBatchResponse> updateIncidentStatus(@PathVariable Long incidentId,
+                                                                       @RequestParam ComplaintStatus status,
+                                                                       @RequestParam(required = false) String adminResponse) {
+        return ResponseEntity.ok(complaintBatchService.updateIncident(incidentId, status, adminResponse));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ComplaintResponse>> searchComplaints(@RequestParam String keyword) {
-        List<ComplaintResponse> complaints = complaintService.searchComplaints(keyword);
-        return ResponseEntity.ok(complaints);
+    public ResponseEntity<List<ComplaintResponse>> searchComplaints(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return complaintService.searchComplaints(keyword, after, size).toResponseEntity();
     }
 
     @GetMapping("/stats/total")
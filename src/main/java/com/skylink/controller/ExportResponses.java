@@ -0,0 +1,48 @@
+package com.skylink.controller;
+
+import com.skylink.service.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the streamed download response shared by the admin export endpoints.
+ */
+final class ExportResponses {
+
+    interface Exporter {
+        long export(ExportFormat format, OutputStream out) throws IOException;
+    }
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(String name, String format, boolean gzip, Exporter exporter) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        String filename = name + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exporter.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exporter.export(exportFormat, out);
+            }
+        };
+
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
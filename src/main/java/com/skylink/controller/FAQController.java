@@ -1,5 +1,6 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.FAQRequest;
 import com.skylink.dto.FAQResponse;
 import com.skylink.service.FAQService;
@@ -14,7 +15,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/faqs")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class FAQController {
 
     @Autowired
@@ -28,9 +29,10 @@ public class FAQController {
     }
 
     @GetMapping
-    public ResponseEntity<List<FAQResponse>> getAllFAQs() {
-        List<FAQResponse> faqs = faqService.getAllFAQs();
-        return ResponseEntity.ok(faqs);
+    public ResponseEntity<List<FAQResponse>> getAllFAQs(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return faqService.getAllFAQs(after, size).toResponseEntity();
     }
 
     @GetMapping("/active")
@@ -1,5 +1,6 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.PlanRequest;
 import com.skylink.dto.PlanResponse;
 import com.skylink.service.PlanService;
@@ -14,7 +15,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/plans")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class PlanController {
 
     @Autowired
@@ -28,9 +29,10 @@ public class PlanController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PlanResponse>> getAllPlans() {
-        List<PlanResponse> plans = planService.getAllPlans();
-        return ResponseEntity.ok(plans);
+    public ResponseEntity<List<PlanResponse>> getAllPlans(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return planService.getAllPlans(after, size).toResponseEntity();
     }
 
     @GetMapping("/active")
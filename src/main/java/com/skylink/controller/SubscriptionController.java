@@ -1,8 +1,14 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
+import com.skylink.dto.SubscriptionBatchRequest;
+import com.skylink.dto.SubscriptionBatchResponse;
 import com.skylink.dto.SubscriptionRequest;
 import com.skylink.dto.SubscriptionResponse;
 import com.skylink.entity.SubscriptionStatus;
+import com.skylink.service.ExportService;
+import com.skylink.service.IdempotencyService;
+import com.skylink.service.SubscriptionBatchService;
 import com.skylink.service.SubscriptionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,22 +16,38 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/subscriptions")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {CursorPage.NEXT_CURSOR_HEADER, IdempotencyService.REPLAYED_HEADER})
 public class SubscriptionController {
 
     @Autowired
     private SubscriptionService subscriptionService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private SubscriptionBatchService subscriptionBatchService;
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
-    public ResponseEntity<SubscriptionResponse> createSubscription(@Valid @RequestBody SubscriptionRequest request) {
-        SubscriptionResponse subscription = subscriptionService.createSubscription(request);
-        return new ResponseEntity<>(subscription, HttpStatus.CREATED);
+    public ResponseEntity<SubscriptionResponse> createSubscription(@Valid @RequestBody SubscriptionRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Principal principal) {
+        String scope = "POST /api/subscriptions:" + (principal != null ? principal.getName() : "");
+        return idempotencyService.execute(scope, idempotencyKey, request, SubscriptionResponse.class, () -> {
+            SubscriptionResponse subscription = subscriptionService.createSubscription(request);
+            return new ResponseEntity<>(subscription, HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/user/{userId}")
@@ -44,9 +66,17 @@ public class SubscriptionController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SubscriptionResponse>> getAllSubscriptions() {
-        List<SubscriptionResponse> subscriptions = subscriptionService.getAllSubscriptions();
-        return ResponseEntity.ok(subscriptions);
+    public ResponseEntity<List<SubscriptionResponse>> getAllSubscriptions(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return subscriptionService.getAllSubscriptions(after, size).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(@RequestParam(defaultValue = "ndjson") String format,
+                                                       @RequestParam(defaultValue = "false") boolean gzip) {
+        return ExportResponses.stream("subscriptions", format, gzip, exportService::exportSubscriptions);
     }
 
     @GetMapping("/status/{status}")
@@ -78,6 +108,18 @@ public class SubscriptionController {
         return ResponseEntity.ok("Subscription renewed successfully");
     }
 
+    @PostMapping("/batch/renew")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SubscriptionBatchResponse> renewSubscriptions(@Valid @RequestBody SubscriptionBatchRequest request) {
+        return ResponseEntity.ok(subscriptionBatchService.renewSubscriptions(request.getIds()));
+    }
+
+    @PostMapping("/batch/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SubscriptionBatchResponse> cancelSubscriptions(@Valid @RequestBody SubscriptionBatchRequest request) {
+        return ResponseEntity.ok(subscriptionBatchService.cancelSubscriptions(request.getIds()));
+    }
+
     @GetMapping("/stats/active")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Long> getTotalActiveSubscriptions() {
@@ -1,30 +1,44 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
+import com.skylink.service.ExportService;
 import com.skylink.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class UserController {
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ExportService exportService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${pagination.default-page-size:50}") int size) {
+        return userService.getAllUsers(after, size).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                       @RequestParam(defaultValue = "false") boolean gzip) {
+        return ExportResponses.stream("users", format, gzip, exportService::exportUsers);
     }
 
     @GetMapping("/{id}")
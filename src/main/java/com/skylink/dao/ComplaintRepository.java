@@ -43,17 +43,30 @@
 //}
 package com.skylink.dao;
 
+import com.skylink.dto.ComplaintResponse;
+import com.skylink.dto.IncidentResponse;
 import com.skylink.entity.Complaint;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Priority;
 import com.skylink.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
@@ -83,4 +96,169 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     
     @Query("SELECT c FROM Complaint c WHERE c.subject LIKE %:keyword% OR c.description LIKE %:keyword%")
     List<Complaint> searchByKeyword(@Param("keyword") String keyword);
+
+    // Read-only projections straight into the response DTO, no managed entities
+    String COMPLAINT_RESPONSE = "SELECT new com.skylink.dto.ComplaintResponse(c.id, u.id, u.name, u.email, " +
+            "c.subject, c.description, c.status, c.priority, c.adminResponse, c.createdAt, c.updatedAt, c.resolvedAt, c.incidentId) " +
+            "FROM Complaint c JOIN c.user u";
+
+    @Query(COMPLAINT_RESPONSE + " WHERE c.id = :id")
+    Optional<ComplaintResponse> findResponseById(@Param("id") Long id);
+
+    @Query(COMPLAINT_RESPONSE + " WHERE (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) ORDER BY c.createdAt, c.id")
+    List<ComplaintResponse> findResponsesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // Forward-only stream for exports; rows are fetched from the driver in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query(COMPLAINT_RESPONSE + " ORDER BY c.id")
+    Stream<ComplaintResponse> streamAllResponses();
+
+    @Query(COMPLAINT_RESPONSE + " WHERE u.id = :userId ORDER BY c.createdAt DESC")
+    List<ComplaintResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(COMPLAINT_RESPONSE + " WHERE c.status = :status ORDER BY c.createdAt DESC")
+    List<ComplaintResponse> findResponsesByStatus(@Param("status") ComplaintStatus status);
+
+    @Query(COMPLAINT_RESPONSE + " WHERE c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) " +
+           "ORDER BY c.priority DESC, c.createdAt ASC")
+    List<ComplaintResponse> findPendingResponsesByPriority();
+
+    @Query(COMPLAINT_RESPONSE + " WHERE c.id IN :ids")
+    List<ComplaintResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    String SEARCH_DOCUMENT = "SELECT c.id AS id, c.subject AS subject, c.description AS description, " +
+            "c.updatedAt AS updatedAt FROM Complaint c";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query(SEARCH_DOCUMENT + " ORDER BY c.id")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query(SEARCH_DOCUMENT + " WHERE c.updatedAt >= :since ORDER BY c.id")
+    Stream<SearchDocument> streamSearchDocumentsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT c.id AS id, c.priority AS priority, c.createdAt AS createdAt FROM Complaint c " +
+           "WHERE c.status = com.skylink.entity.ComplaintStatus.OPEN")
+    List<DispatchEntry> findOpenDispatchEntries();
+
+    // Succeeds for exactly one caller, however many agents or nodes race for the same complaint
+    @Modifying
+    @Query("UPDATE Complaint c SET c.status = com.skylink.entity.ComplaintStatus.IN_PROGRESS, c.assignedAgentId = :agentId, " +
+           "c.updatedAt = :now WHERE c.id = :id AND c.status = com.skylink.entity.ComplaintStatus.OPEN")
+    int claim(@Param("id") Long id, @Param("agentId") Long agentId, @Param("now") LocalDateTime now);
+
+    // Bulk triage locks each chunk in id order so that concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Complaint c WHERE c.id IN :ids ORDER BY c.id")
+    List<Complaint> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // resolvedAt follows the same rule as Complaint#onUpdate, and reopening releases the agent
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Complaint c SET c.status = :status, " +
+           "c.assignedAgentId = CASE WHEN :status = com.skylink.entity.ComplaintStatus.OPEN THEN NULL ELSE c.assignedAgentId END, " +
+           "c.resolvedAt = CASE WHEN :status = com.skylink.entity.ComplaintStatus.RESOLVED THEN COALESCE(c.resolvedAt, :now) ELSE c.resolvedAt END, " +
+           "c.updatedAt = :now WHERE c.id IN :ids")
+    int updateStatusAll(@Param("ids") Collection<Long> ids, @Param("status") ComplaintStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Complaint c SET c.priority = :priority, c.updatedAt = :now WHERE c.id IN :ids")
+    int updatePriorityAll(@Param("ids") Collection<Long> ids, @Param("priority") Priority priority, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Complaint c SET c.adminResponse = :adminResponse, c.updatedAt = :now WHERE c.id IN :ids")
+    int updateAdminResponseAll(@Param("ids") Collection<Long> ids, @Param("adminResponse") String adminResponse, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.id AS id, c.priority AS priority, c.createdAt AS createdAt FROM Complaint c " +
+           "WHERE c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) " +
+           "AND c.slaBreachedAt IS NULL")
+    List<SlaTimer> findUnbreachedSlaTimers();
+
+    // Locked in id order before marking, so of several nodes only one sees each complaint as unbreached
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Complaint c WHERE c.id IN :ids AND c.slaBreachedAt IS NULL " +
+           "AND c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) ORDER BY c.id")
+    List<Complaint> lockUnbreachedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Complaint c SET c.slaBreachedAt = :now WHERE c.id IN :ids AND c.slaBreachedAt IS NULL")
+    int markSlaBreached(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT c.priority AS priority, c.createdAt AS createdAt, c.resolvedAt AS resolvedAt FROM Complaint c " +
+           "WHERE c.resolvedAt >= :since")
+    Stream<ResolutionTime> streamResolutionTimesSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT c.priority AS priority, COUNT(c) AS total FROM Complaint c " +
+           "WHERE c.slaBreachedAt IS NOT NULL AND c.createdAt >= :since GROUP BY c.priority")
+    List<PriorityCount> countSlaBreachesSince(@Param("since") LocalDateTime since);
+
+    @Query(COMPLAINT_RESPONSE + " WHERE c.incidentId = :incidentId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) ORDER BY c.createdAt, c.id")
+    List<ComplaintResponse> findResponsesByIncidentIdAfter(@Param("incidentId") Long incidentId,
+                                                           @Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("id") Long id,
+                                                           Pageable limit);
+
+    @Query("SELECT c.id FROM Complaint c WHERE c.incidentId = :incidentId AND c.id > :afterId " +
+           "AND c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) ORDER BY c.id")
+    List<Long> findPendingIdsByIncidentId(@Param("incidentId") Long incidentId, @Param("afterId") Long afterId, Pageable limit);
+
+    boolean existsByIncidentId(Long incidentId);
+
+    // Incidents with complaints still pending, largest first; r is the complaint that opened the incident
+    @Query("SELECT new com.skylink.dto.IncidentResponse(c.incidentId, r.subject, COUNT(c), " +
+           "SUM(CASE WHEN c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) THEN 1L ELSE 0L END), " +
+           "MIN(c.createdAt), MAX(c.createdAt)) " +
+           "FROM Complaint c JOIN Complaint r ON r.id = c.incidentId " +
+           "GROUP BY c.incidentId, r.subject " +
+           "HAVING SUM(CASE WHEN c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS) THEN 1 ELSE 0 END) > 0 " +
+           "ORDER BY COUNT(c) DESC, c.incidentId")
+    List<IncidentResponse> findOpenIncidents(Pageable limit);
+
+    // The first complaint joins its own incident once a near-duplicate of it arrives
+    @Modifying
+    @Query("UPDATE Complaint c SET c.incidentId = c.id WHERE c.id = :id AND c.incidentId IS NULL")
+    int openIncident(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT c.id AS id, c.incidentId AS incidentId, c.subject AS subject, c.description AS description " +
+           "FROM Complaint c WHERE c.status IN (com.skylink.entity.ComplaintStatus.OPEN, com.skylink.entity.ComplaintStatus.IN_PROGRESS)")
+    Stream<IncidentDocument> streamPendingIncidentDocuments();
+
+    interface IncidentDocument {
+        Long getId();
+        Long getIncidentId();
+        String getSubject();
+        String getDescription();
+    }
+
+    interface SlaTimer {
+        Long getId();
+        Priority getPriority();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface ResolutionTime {
+        Priority getPriority();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getResolvedAt();
+    }
+
+    interface PriorityCount {
+        Priority getPriority();
+        long getTotal();
+    }
+
+    interface SearchDocument {
+        Long getId();
+        String getSubject();
+        String getDescription();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface DispatchEntry {
+        Long getId();
+        Priority getPriority();
+        LocalDateTime getCreatedAt();
+    }
 }
\ No newline at end of file
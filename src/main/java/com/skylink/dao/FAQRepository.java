@@ -1,11 +1,13 @@
 package com.skylink.dao;
 
 import com.skylink.entity.FAQ;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -27,4 +29,7 @@ public interface FAQRepository extends JpaRepository<FAQ, Long> {
     
     @Query("SELECT f FROM FAQ f WHERE f.active = true AND (f.question LIKE %:keyword% OR f.answer LIKE %:keyword%)")
     List<FAQ> searchByKeyword(@Param("keyword") String keyword);
+
+    @Query("SELECT f FROM FAQ f WHERE (f.createdAt > :createdAt OR (f.createdAt = :createdAt AND f.id > :id)) ORDER BY f.createdAt, f.id")
+    List<FAQ> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
 }
\ No newline at end of file
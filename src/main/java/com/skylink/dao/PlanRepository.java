@@ -1,12 +1,14 @@
 package com.skylink.dao;
 
 import com.skylink.entity.Plan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -26,6 +28,9 @@ public interface PlanRepository extends JpaRepository<Plan, Long> {
     @Query("SELECT p FROM Plan p WHERE p.active = true AND p.speedMbps >= :minSpeed")
     List<Plan> findActivePlansByMinSpeed(@Param("minSpeed") Integer minSpeed);
     
+    @Query("SELECT p FROM Plan p WHERE (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) ORDER BY p.createdAt, p.id")
+    List<Plan> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
     @Query("SELECT COUNT(s) FROM Subscription s WHERE s.plan.id = :planId")
     long countSubscriptionsByPlanId(@Param("planId") Long planId);
 }
\ No newline at end of file
@@ -42,35 +42,90 @@
 
 package com.skylink.dao;
 
+import com.skylink.dto.SubscriptionResponse;
 import com.skylink.entity.Subscription;
 import com.skylink.entity.SubscriptionStatus;
 import com.skylink.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
 
     List<Subscription> findByUser(User user);
 
+    // List reads load user and plan in the same query; responses always read both
+    @EntityGraph(attributePaths = {"user", "plan"})
     List<Subscription> findByUserOrderByCreatedAtDesc(User user);
 
+    @EntityGraph(attributePaths = {"user", "plan"})
     List<Subscription> findByStatus(SubscriptionStatus status);
 
     Optional<Subscription> findByUserAndStatus(User user, SubscriptionStatus status);
 
+    @EntityGraph(attributePaths = {"user", "plan"})
     @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE")
     Optional<Subscription> findActiveSubscriptionByUserId(@Param("userId") Long userId);
 
     @Query("SELECT s FROM Subscription s WHERE s.endDate < :currentDate AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE")
     List<Subscription> findExpiredSubscriptions(@Param("currentDate") LocalDateTime currentDate);
 
+    // Read-only projections straight into the response DTO, no managed entities
+    String SUBSCRIPTION_RESPONSE = "SELECT new com.skylink.dto.SubscriptionResponse(s.id, u.id, u.name, u.email, " +
+            "p.id, p.name, p.price, s.startDate, s.endDate, s.status, s.createdAt, s.updatedAt) " +
+            "FROM Subscription s JOIN s.user u JOIN s.plan p";
+
+    @Query(SUBSCRIPTION_RESPONSE + " WHERE (s.createdAt > :createdAt OR (s.createdAt = :createdAt AND s.id > :id)) ORDER BY s.createdAt, s.id")
+    List<SubscriptionResponse> findResponsesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // Forward-only stream for exports; rows are fetched from the driver in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE))
+    @Query(SUBSCRIPTION_RESPONSE + " ORDER BY s.id")
+    Stream<SubscriptionResponse> streamAllResponses();
+
+    @Query(SUBSCRIPTION_RESPONSE + " WHERE s.status = :status")
+    List<SubscriptionResponse> findResponsesByStatus(@Param("status") SubscriptionStatus status);
+
+    @Query(SUBSCRIPTION_RESPONSE + " WHERE u.id = :userId ORDER BY s.createdAt DESC")
+    List<SubscriptionResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(SUBSCRIPTION_RESPONSE + " WHERE u.id = :userId AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE")
+    Optional<SubscriptionResponse> findActiveResponseByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT s.id FROM Subscription s WHERE s.endDate < :currentDate AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE " +
+           "AND s.id > :afterId ORDER BY s.id")
+    List<Long> findExpiredSubscriptionIds(@Param("currentDate") LocalDateTime currentDate,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    // Re-checks status and end date so concurrent runs on several nodes expire each row once
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Subscription s SET s.status = com.skylink.entity.SubscriptionStatus.EXPIRED, s.activeUserId = NULL, s.updatedAt = :currentDate " +
+           "WHERE s.id IN :ids AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE AND s.endDate < :currentDate")
+    int expireSubscriptions(@Param("ids") List<Long> ids, @Param("currentDate") LocalDateTime currentDate);
+
+    @Query("SELECT s.id AS id, s.endDate AS endDate FROM Subscription s " +
+           "WHERE s.status = com.skylink.entity.SubscriptionStatus.ACTIVE AND s.endDate < :until")
+    List<ExpiryTime> findActiveExpiryTimesBefore(@Param("until") LocalDateTime until);
+
     @Query("SELECT s FROM Subscription s WHERE s.endDate BETWEEN :startDate AND :endDate")
     List<Subscription> findSubscriptionsExpiringBetween(@Param("startDate") LocalDateTime startDate,
                                                         @Param("endDate") LocalDateTime endDate);
@@ -80,4 +135,52 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     @Query("SELECT COUNT(s) FROM Subscription s WHERE s.plan.id = :planId AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE")
     long countActiveSubscriptionsByPlanId(@Param("planId") Long planId);
+
+    // Batch endpoints lock each chunk in id order so that concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Subscription s WHERE s.id IN :ids ORDER BY s.id")
+    List<Subscription> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Also matches ACTIVE rows whose active_user_id was never backfilled
+    @Query("SELECT s.user.id AS userId, s.id AS id FROM Subscription s WHERE s.user.id IN :userIds " +
+           "AND (s.activeUserId IS NOT NULL OR s.status = com.skylink.entity.SubscriptionStatus.ACTIVE)")
+    List<ActiveHolder> findActiveHolders(@Param("userIds") Collection<Long> userIds);
+
+    // ACTIVE rows from before active_user_id existed whose user holds no other active subscription
+    @Query("SELECT s.id FROM Subscription s WHERE s.status = com.skylink.entity.SubscriptionStatus.ACTIVE " +
+           "AND s.activeUserId IS NULL AND NOT EXISTS (SELECT o.id FROM Subscription o WHERE o.user = s.user " +
+           "AND o.id <> s.id AND (o.status = com.skylink.entity.SubscriptionStatus.ACTIVE OR o.activeUserId IS NOT NULL)) " +
+           "ORDER BY s.id")
+    List<Long> findUnclaimedActiveIds(Pageable limit);
+
+    @Query("SELECT COUNT(s) FROM Subscription s WHERE s.status = com.skylink.entity.SubscriptionStatus.ACTIVE AND s.activeUserId IS NULL")
+    long countUnclaimedActive();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Subscription s SET s.activeUserId = s.user.id WHERE s.id IN :ids " +
+           "AND s.status = com.skylink.entity.SubscriptionStatus.ACTIVE AND s.activeUserId IS NULL")
+    int claimActiveUser(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Subscription s SET s.status = com.skylink.entity.SubscriptionStatus.ACTIVE, s.activeUserId = s.user.id, " +
+           "s.startDate = :startDate, s.endDate = :endDate, s.updatedAt = :startDate WHERE s.id IN :ids")
+    int renewAll(@Param("ids") Collection<Long> ids,
+                 @Param("startDate") LocalDateTime startDate,
+                 @Param("endDate") LocalDateTime endDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Subscription s SET s.status = com.skylink.entity.SubscriptionStatus.CANCELLED, s.activeUserId = NULL, " +
+           "s.updatedAt = :now WHERE s.id IN :ids")
+    int cancelAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    interface ActiveHolder {
+        Long getUserId();
+        Long getId();
+    }
+
+    interface ExpiryTime {
+        Long getId();
+        LocalDateTime getEndDate();
+    }
 }
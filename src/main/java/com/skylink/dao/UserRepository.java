@@ -1,14 +1,21 @@
 package com.skylink.dao;
 
+import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
 import com.skylink.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -33,4 +40,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.name LIKE %:name% OR u.email LIKE %:email%")
     List<User> searchByNameOrEmail(@Param("name") String name, @Param("email") String email);
+
+    // Read-only projections straight into the response DTO, no managed entities
+    String EXPORT_FETCH_SIZE = "1000";
+
+    String USER_RESPONSE = "SELECT new com.skylink.dto.UserResponse(u.id, u.name, u.email, u.mobileNumber, u.role, " +
+            "u.active, u.createdAt, u.updatedAt) FROM User u";
+
+    @Query(USER_RESPONSE + " WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    @Query(USER_RESPONSE + " WHERE u.email = :email")
+    Optional<UserResponse> findResponseByEmail(@Param("email") String email);
+
+    // Keyset page ordered by (createdAt, id); rides idx_users_created_at_id, never OFFSET
+    @Query(USER_RESPONSE + " WHERE (u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id)) ORDER BY u.createdAt, u.id")
+    List<UserResponse> findResponsesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(USER_RESPONSE + " WHERE u.role = :role")
+    List<UserResponse> findResponsesByRole(@Param("role") Role role);
+
+    // Forward-only stream for exports; rows are fetched from the driver in batches of EXPORT_FETCH_SIZE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(USER_RESPONSE + " ORDER BY u.id")
+    Stream<UserResponse> streamAllResponses();
+
+    @Query("SELECT u.tokenVersion AS tokenVersion, u.active AS active FROM User u WHERE u.id = :id")
+    Optional<TokenState> findTokenStateById(@Param("id") Long id);
+
+    interface TokenState {
+        Integer getTokenVersion();
+        Boolean getActive();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.skylink.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-id outcome of a bulk complaint update, in request order.
+ */
+public class ComplaintBatchResponse {
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND
+    }
+
+    private int requested;
+    private int succeeded;
+    private Map<Long, Outcome> results = new LinkedHashMap<>();
+
+    // Constructors
+    public ComplaintBatchResponse() {}
+
+    public ComplaintBatchResponse(Map<Long, Outcome> results) {
+        this.results = results;
+        this.requested = results.size();
+        this.succeeded = (int) results.values().stream().filter(o -> o == Outcome.UPDATED).count();
+    }
+
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public Map<Long, Outcome> getResults() { return results; }
+    public void setResults(Map<Long, Outcome> results) { this.results = results; }
+}
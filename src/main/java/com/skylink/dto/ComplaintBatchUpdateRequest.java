@@ -0,0 +1,42 @@
+package com.skylink.dto;
+
+import com.skylink.entity.ComplaintStatus;
+import com.skylink.entity.Priority;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Changes applied to every listed complaint; fields left null are not changed.
+ */
+public class ComplaintBatchUpdateRequest {
+    @NotEmpty(message = "At least one complaint ID is required")
+    private List<Long> ids;
+
+    private ComplaintStatus status;
+    private Priority priority;
+    private String adminResponse;
+
+    // Constructors
+    public ComplaintBatchUpdateRequest() {}
+
+    public ComplaintBatchUpdateRequest(List<Long> ids, ComplaintStatus status, Priority priority, String adminResponse) {
+        this.ids = ids;
+        this.status = status;
+        this.priority = priority;
+        this.adminResponse = adminResponse;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public ComplaintStatus getStatus() { return status; }
+    public void setStatus(ComplaintStatus status) { this.status = status; }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+
+    public String getAdminResponse() { return adminResponse; }
+    public void setAdminResponse(String adminResponse) { this.adminResponse = adminResponse; }
+}
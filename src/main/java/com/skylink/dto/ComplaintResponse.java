@@ -18,10 +18,38 @@ public class ComplaintResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime resolvedAt;
+    private Long incidentId;
 
     // Constructors
     public ComplaintResponse() {}
 
+    public ComplaintResponse(Long id, Long userId, String userName, String userEmail, String subject,
+                             String description, ComplaintStatus status, Priority priority,
+                             String adminResponse, LocalDateTime createdAt, LocalDateTime updatedAt,
+                             LocalDateTime resolvedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.subject = subject;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.adminResponse = adminResponse;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+    }
+
+    public ComplaintResponse(Long id, Long userId, String userName, String userEmail, String subject,
+                             String description, ComplaintStatus status, Priority priority,
+                             String adminResponse, LocalDateTime createdAt, LocalDateTime updatedAt,
+                             LocalDateTime resolvedAt, Long incidentId) {
+        this(id, userId, userName, userEmail, subject, description, status, priority, adminResponse,
+                createdAt, updatedAt, resolvedAt);
+        this.incidentId = incidentId;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -58,4 +86,7 @@ public class ComplaintResponse {
 
     public LocalDateTime getResolvedAt() { return resolvedAt; }
     public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public Long getIncidentId() { return incidentId; }
+    public void setIncidentId(Long incidentId) { this.incidentId = incidentId; }
 }
\ No newline at end of file
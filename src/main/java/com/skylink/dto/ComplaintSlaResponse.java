@@ -0,0 +1,59 @@
+package com.skylink.dto;
+
+import com.skylink.entity.Priority;
+
+/**
+ * SLA target and resolution-time distribution for one priority. Quantiles are in minutes
+ * and null when no complaint of that priority was resolved in the window.
+ */
+public class ComplaintSlaResponse {
+    private Priority priority;
+    private long targetMinutes;
+    private long resolved;
+    private Double p50Minutes;
+    private Double p90Minutes;
+    private Double p99Minutes;
+    private Double maxMinutes;
+    private Double meanMinutes;
+    private long breaches;
+    private long openTracked;
+
+    // Constructors
+    public ComplaintSlaResponse() {}
+
+    public ComplaintSlaResponse(Priority priority, long targetMinutes) {
+        this.priority = priority;
+        this.targetMinutes = targetMinutes;
+    }
+
+    // Getters and Setters
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+
+    public long getTargetMinutes() { return targetMinutes; }
+    public void setTargetMinutes(long targetMinutes) { this.targetMinutes = targetMinutes; }
+
+    public long getResolved() { return resolved; }
+    public void setResolved(long resolved) { this.resolved = resolved; }
+
+    public Double getP50Minutes() { return p50Minutes; }
+    public void setP50Minutes(Double p50Minutes) { this.p50Minutes = p50Minutes; }
+
+    public Double getP90Minutes() { return p90Minutes; }
+    public void setP90Minutes(Double p90Minutes) { this.p90Minutes = p90Minutes; }
+
+    public Double getP99Minutes() { return p99Minutes; }
+    public void setP99Minutes(Double p99Minutes) { this.p99Minutes = p99Minutes; }
+
+    public Double getMaxMinutes() { return maxMinutes; }
+    public void setMaxMinutes(Double maxMinutes) { this.maxMinutes = maxMinutes; }
+
+    public Double getMeanMinutes() { return meanMinutes; }
+    public void setMeanMinutes(Double meanMinutes) { this.meanMinutes = meanMinutes; }
+
+    public long getBreaches() { return breaches; }
+    public void setBreaches(long breaches) { this.breaches = breaches; }
+
+    public long getOpenTracked() { return openTracked; }
+    public void setOpenTracked(long openTracked) { this.openTracked = openTracked; }
+}
@@ -0,0 +1,57 @@
+package com.skylink.dto;
+
+import com.skylink.util.KeysetCursor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. The body stays a plain JSON array; the cursor for
+ * the following page travels in the {@value #NEXT_CURSOR_HEADER} header and is absent on
+ * the last page.
+ */
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from up to size + 1 rows; the extra row only signals that more exist.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> keyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, keyOf.apply(items.get(size - 1)).encode());
+    }
+
+    /**
+     * Limits a requested page size to [1, maxSize].
+     */
+    public static int clampSize(int requested, int maxSize) {
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,47 @@
+package com.skylink.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cluster of near-duplicate complaints, identified by the id of its first complaint.
+ */
+public class IncidentResponse {
+    private Long incidentId;
+    private String subject;
+    private long complaints;
+    private long pendingComplaints;
+    private LocalDateTime firstReportedAt;
+    private LocalDateTime lastReportedAt;
+
+    // Constructors
+    public IncidentResponse() {}
+
+    public IncidentResponse(Long incidentId, String subject, long complaints, long pendingComplaints,
+                            LocalDateTime firstReportedAt, LocalDateTime lastReportedAt) {
+        this.incidentId = incidentId;
+        this.subject = subject;
+        this.complaints = complaints;
+        this.pendingComplaints = pendingComplaints;
+        this.firstReportedAt = firstReportedAt;
+        this.lastReportedAt = lastReportedAt;
+    }
+
+    // Getters and Setters
+    public Long getIncidentId() { return incidentId; }
+    public void setIncidentId(Long incidentId) { this.incidentId = incidentId; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public long getComplaints() { return complaints; }
+    public void setComplaints(long complaints) { this.complaints = complaints; }
+
+    public long getPendingComplaints() { return pendingComplaints; }
+    public void setPendingComplaints(long pendingComplaints) { this.pendingComplaints = pendingComplaints; }
+
+    public LocalDateTime getFirstReportedAt() { return firstReportedAt; }
+    public void setFirstReportedAt(LocalDateTime firstReportedAt) { this.firstReportedAt = firstReportedAt; }
+
+    public LocalDateTime getLastReportedAt() { return lastReportedAt; }
+    public void setLastReportedAt(LocalDateTime lastReportedAt) { this.lastReportedAt = lastReportedAt; }
+}
@@ -2,6 +2,7 @@ package com.skylink.dto;
 
 public class LoginResponse {
     private String token;
+    private String refreshToken;
     private UserResponse user;
 
     // Constructors
@@ -12,10 +13,19 @@ public class LoginResponse {
         this.user = user;
     }
 
+    public LoginResponse(String token, String refreshToken, UserResponse user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+
     // Getters and Setters
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
 
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
     public UserResponse getUser() { return user; }
     public void setUser(UserResponse user) { this.user = user; }
 }
\ No newline at end of file
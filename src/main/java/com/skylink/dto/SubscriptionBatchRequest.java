@@ -0,0 +1,21 @@
+package com.skylink.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class SubscriptionBatchRequest {
+    @NotEmpty(message = "At least one subscription ID is required")
+    private List<Long> ids;
+
+    // Constructors
+    public SubscriptionBatchRequest() {}
+
+    public SubscriptionBatchRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
@@ -0,0 +1,44 @@
+package com.skylink.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-id outcome of a batch renewal or cancellation, in request order.
+ */
+public class SubscriptionBatchResponse {
+
+    public enum Outcome {
+        RENEWED,
+        CANCELLED,
+        ALREADY_CANCELLED,
+        NOT_FOUND,
+        // The user already has another active subscription
+        CONFLICT
+    }
+
+    private int requested;
+    private int succeeded;
+    private Map<Long, Outcome> results = new LinkedHashMap<>();
+
+    // Constructors
+    public SubscriptionBatchResponse() {}
+
+    public SubscriptionBatchResponse(Map<Long, Outcome> results) {
+        this.results = results;
+        this.requested = results.size();
+        this.succeeded = (int) results.values().stream()
+                .filter(o -> o == Outcome.RENEWED || o == Outcome.CANCELLED)
+                .count();
+    }
+
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public Map<Long, Outcome> getResults() { return results; }
+    public void setResults(Map<Long, Outcome> results) { this.results = results; }
+}
@@ -22,6 +22,24 @@ public class SubscriptionResponse {
     // Constructors
     public SubscriptionResponse() {}
 
+    public SubscriptionResponse(Long id, Long userId, String userName, String userEmail, Long planId,
+                                String planName, BigDecimal planPrice, LocalDateTime startDate,
+                                LocalDateTime endDate, SubscriptionStatus status, LocalDateTime createdAt,
+                                LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.planId = planId;
+        this.planName = planName;
+        this.planPrice = planPrice;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -17,6 +17,18 @@ public class UserResponse {
     // Constructors
     public UserResponse() {}
 
+    public UserResponse(Long id, String name, String email, String mobileNumber, Role role, Boolean active,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.mobileNumber = mobileNumber;
+        this.role = role;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -6,7 +6,12 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+        @Index(name = "idx_complaints_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_complaints_status", columnList = "status"),
+        @Index(name = "idx_complaints_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_complaints_incident_created", columnList = "incident_id, created_at")
+})
 public class Complaint {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +40,10 @@ public class Complaint {
     @Column(columnDefinition = "TEXT")
     private String adminResponse;
 
+    // Agent who claimed the complaint from the dispatch queue
+    @Column(name = "assigned_agent_id")
+    private Long assignedAgentId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -44,6 +53,14 @@ public class Complaint {
     @Column(name = "resolved_at")
     private LocalDateTime resolvedAt;
 
+    // Set once, by whichever node first sees the SLA deadline pass
+    @Column(name = "sla_breached_at")
+    private LocalDateTime slaBreachedAt;
+
+    // Id of the first complaint of the near-duplicate cluster this one belongs to, itself included
+    @Column(name = "incident_id")
+    private Long incidentId;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -90,6 +107,9 @@ public class Complaint {
     public String getAdminResponse() { return adminResponse; }
     public void setAdminResponse(String adminResponse) { this.adminResponse = adminResponse; }
 
+    public Long getAssignedAgentId() { return assignedAgentId; }
+    public void setAssignedAgentId(Long assignedAgentId) { this.assignedAgentId = assignedAgentId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -98,4 +118,10 @@ public class Complaint {
 
     public LocalDateTime getResolvedAt() { return resolvedAt; }
     public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public LocalDateTime getSlaBreachedAt() { return slaBreachedAt; }
+    public void setSlaBreachedAt(LocalDateTime slaBreachedAt) { this.slaBreachedAt = slaBreachedAt; }
+
+    public Long getIncidentId() { return incidentId; }
+    public void setIncidentId(Long incidentId) { this.incidentId = incidentId; }
 }
\ No newline at end of file
@@ -6,7 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "faqs")
+@Table(name = "faqs", indexes = @Index(name = "idx_faqs_created_at_id", columnList = "created_at, id"))
 public class FAQ {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
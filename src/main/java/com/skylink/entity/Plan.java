@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "plans")
+@Table(name = "plans", indexes = @Index(name = "idx_plans_created_at_id", columnList = "created_at, id"))
 public class Plan {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
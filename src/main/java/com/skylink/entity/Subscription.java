@@ -87,7 +87,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "subscriptions")
+@Table(name = "subscriptions", indexes = {
+        @Index(name = "idx_subscriptions_status_end_date", columnList = "status, end_date"),
+        @Index(name = "idx_subscriptions_created_at_id", columnList = "created_at, id")
+})
 public class Subscription {
 
     @Id
@@ -112,6 +115,11 @@ public class Subscription {
     @Column(nullable = false)
     private SubscriptionStatus status = SubscriptionStatus.ACTIVE;
 
+    // Mirrors user_id while ACTIVE and is NULL otherwise, so the unique constraint
+    // lets the database enforce at most one active subscription per user
+    @Column(name = "active_user_id", unique = true)
+    private Long activeUserId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -122,11 +130,17 @@ public class Subscription {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        syncActiveUserId();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        syncActiveUserId();
+    }
+
+    private void syncActiveUserId() {
+        activeUserId = status == SubscriptionStatus.ACTIVE && user != null ? user.getId() : null;
     }
 
     public Subscription() {}
@@ -157,6 +171,8 @@ public class Subscription {
     public SubscriptionStatus getStatus() { return status; }
     public void setStatus(SubscriptionStatus status) { this.status = status; }
 
+    public Long getActiveUserId() { return activeUserId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
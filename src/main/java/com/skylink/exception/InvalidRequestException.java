@@ -0,0 +1,10 @@
+package com.skylink.exception;
+
+/**
+ * A request parameter, header or cursor the client got wrong; answered with 400 and the message.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
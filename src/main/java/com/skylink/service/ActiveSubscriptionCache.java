@@ -0,0 +1,84 @@
+package com.skylink.service;
+
+import com.skylink.dto.SubscriptionResponse;
+import com.skylink.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of each user's active subscription, including "no active subscription".
+ * A positive entry never outlives the subscription's end date, so expiry needs no explicit
+ * invalidation; writers invalidate immediately and again after commit, as in {@link PrincipalCache}.
+ */
+@Component
+public class ActiveSubscriptionCache implements StatsProvider {
+
+    private final ExpiringCache<Long, Optional<SubscriptionResponse>> cache;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder negativeLoads = new LongAdder();
+
+    public ActiveSubscriptionCache(@Value("${subscription.active-cache.max-size:100000}") int maxSize,
+                                   @Value("${subscription.active-cache.ttl-ms:60000}") long ttlMillis,
+                                   @Value("${subscription.active-cache.negative-ttl-ms:30000}") long negativeTtlMillis) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    public Optional<SubscriptionResponse> get(Long userId, Function<Long, Optional<SubscriptionResponse>> loader) {
+        long now = System.currentTimeMillis();
+        Optional<SubscriptionResponse> cached = cache.get(userId, now);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<SubscriptionResponse> loaded = loader.apply(userId);
+        loads.increment();
+        if (loaded.isPresent()) {
+            long expiresAt = now + ttlMillis;
+            LocalDateTime endDate = loaded.get().getEndDate();
+            if (endDate != null) {
+                expiresAt = Math.min(expiresAt, endDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            cache.put(userId, loaded, expiresAt);
+        } else {
+            negativeLoads.increment();
+            cache.put(userId, loaded, now + negativeTtlMillis);
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = cache.stats("subscription.activeCache");
+        stats.put("subscription.activeCache.loads", loads.sum());
+        stats.put("subscription.activeCache.negativeLoads", negativeLoads.sum());
+        return stats;
+    }
+}
@@ -4,14 +4,18 @@ import com.skylink.dao.ComplaintRepository;
 import com.skylink.dao.SubscriptionRepository;
 import com.skylink.dao.UserRepository;
 import com.skylink.dto.AnalyticsResponse;
+import com.skylink.dto.ComplaintSlaResponse;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Role;
 import com.skylink.entity.SubscriptionStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -26,6 +30,13 @@ public class AnalyticsService {
     @Autowired
     private ComplaintRepository complaintRepository;
 
+    @Autowired
+    private ComplaintSlaMonitor complaintSlaMonitor;
+
+    @Autowired
+    private List<StatsProvider> statsProviders;
+
+    @Transactional(readOnly = true)
     public AnalyticsResponse getAnalytics() {
         AnalyticsResponse analytics = new AnalyticsResponse();
 
@@ -62,6 +73,7 @@ public class AnalyticsService {
         return analytics;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Long> getUserGrowthAnalytics() {
         Map<String, Long> userGrowth = new HashMap<>();
         
@@ -73,6 +85,7 @@ public class AnalyticsService {
         return userGrowth;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Long> getSubscriptionAnalytics() {
         Map<String, Long> subscriptionStats = new HashMap<>();
         
@@ -84,6 +97,7 @@ public class AnalyticsService {
         return subscriptionStats;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Long> getComplaintAnalytics() {
         Map<String, Long> complaintStats = new HashMap<>();
         
@@ -94,4 +108,21 @@ public class AnalyticsService {
         
         return complaintStats;
     }
-}
\ No newline at end of file
+
+    /**
+     * SLA targets and resolution-time quantiles per priority, served from memory.
+     */
+    public List<ComplaintSlaResponse> getComplaintSlaReport() {
+        return complaintSlaMonitor.getReport();
+    }
+
+    public Map<String, Long> getPerformanceAnalytics() {
+        Map<String, Long> performanceStats = new LinkedHashMap<>();
+
+        for (StatsProvider provider : statsProviders) {
+            performanceStats.putAll(provider.getStats());
+        }
+
+        return performanceStats;
+    }
+}
@@ -0,0 +1,151 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.dto.ComplaintBatchResponse;
+import com.skylink.dto.ComplaintBatchResponse.Outcome;
+import com.skylink.dto.ComplaintBatchUpdateRequest;
+import com.skylink.entity.Complaint;
+import com.skylink.entity.ComplaintStatus;
+import com.skylink.entity.Priority;
+import com.skylink.exception.InvalidRequestException;
+import com.skylink.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies one status, priority and admin-response change to many complaints per call. Ids are
+ * handled in chunks, each in its own short transaction: the chunk's rows are locked with one
+ * query and changed with one bulk update per changed field, instead of a load and save per
+ * complaint.
+ */
+@Service
+public class ComplaintBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintBatchService.class);
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${complaint.batch.max-ids:50000}")
+    private int maxIds = 50000;
+
+    @Value("${complaint.batch.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public ComplaintBatchResponse updateComplaints(ComplaintBatchUpdateRequest request) {
+        List<Long> ids = request.getIds();
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Complaint IDs must not be null");
+        }
+        String adminResponse = request.getAdminResponse() != null && !request.getAdminResponse().trim().isEmpty()
+                ? request.getAdminResponse() : null;
+        if (request.getStatus() == null && request.getPriority() == null && adminResponse == null) {
+            throw new InvalidRequestException("At least one of status, priority or adminResponse is required");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > maxIds) {
+            throw new InvalidRequestException("At most " + maxIds + " complaint IDs can be updated per batch");
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        distinctIds.forEach(id -> outcomes.put(id, Outcome.NOT_FOUND));
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            runChunk(chunk, request.getStatus(), request.getPriority(), adminResponse)
+                    .forEach(id -> outcomes.put(id, Outcome.UPDATED));
+        }
+
+        ComplaintBatchResponse response = new ComplaintBatchResponse(outcomes);
+        logger.info("Batch update of {} complaints: {} updated ({} ms)",
+                response.getRequested(), response.getSucceeded(), System.currentTimeMillis() - start);
+        return response;
+    }
+
+    /**
+     * Applies the change to every pending complaint of the incident, e.g. to resolve an
+     * outage's complaints together. Complaints already resolved or closed are left alone.
+     * The incident's ids are read and updated a chunk at a time, so an outage of any size
+     * can be resolved in one call without the batch id limit.
+     */
+    public ComplaintBatchResponse updateIncident(Long incidentId, ComplaintStatus status, String adminResponse) {
+        String response = adminResponse != null && !adminResponse.trim().isEmpty() ? adminResponse : null;
+        long start = System.currentTimeMillis();
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        Long lastId = 0L;
+        while (true) {
+            List<Long> chunk = complaintRepository.findPendingIdsByIncidentId(incidentId, lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(id -> outcomes.put(id, Outcome.NOT_FOUND));
+            runChunk(chunk, status, null, response).forEach(id -> outcomes.put(id, Outcome.UPDATED));
+            lastId = chunk.get(chunk.size() - 1);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        if (outcomes.isEmpty() && !complaintRepository.existsByIncidentId(incidentId)) {
+            throw new ResourceNotFoundException("Incident not found with id: " + incidentId);
+        }
+
+        ComplaintBatchResponse batchResponse = new ComplaintBatchResponse(outcomes);
+        logger.info("Update of incident {}: {} of {} pending complaints updated ({} ms)",
+                incidentId, batchResponse.getSucceeded(), batchResponse.getRequested(), System.currentTimeMillis() - start);
+        return batchResponse;
+    }
+
+    private List<Long> runChunk(List<Long> ids, ComplaintStatus status, Priority priority, String adminResponse) {
+        return transactionTemplate.execute(tx -> updateChunk(ids, status, priority, adminResponse));
+    }
+
+    private List<Long> updateChunk(List<Long> ids, ComplaintStatus status, Priority priority, String adminResponse) {
+        List<Complaint> rows = complaintRepository.lockAllByIdIn(ids);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> updated = rows.stream().map(Complaint::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        if (status != null) {
+            complaintRepository.updateStatusAll(updated, status, now);
+        }
+        if (priority != null) {
+            complaintRepository.updatePriorityAll(updated, priority, now);
+        }
+        if (adminResponse != null) {
+            complaintRepository.updateAdminResponseAll(updated, adminResponse, now);
+        }
+
+        if (status == null && priority == null) {
+            return updated;
+        }
+        // The rows are detached by the bulk update but still hold their values from before it
+        for (Complaint row : rows) {
+            ComplaintStatus newStatus = status != null ? status : row.getStatus();
+            Priority newPriority = priority != null ? priority : row.getPriority();
+            boolean firstResolution = newStatus == ComplaintStatus.RESOLVED && row.getResolvedAt() == null;
+            complaintService.syncTracking(row.getId(), newStatus, newPriority, row.getCreatedAt(),
+                    row.getSlaBreachedAt(), firstResolution);
+        }
+        return updated;
+    }
+}
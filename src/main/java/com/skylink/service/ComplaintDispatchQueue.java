@@ -0,0 +1,183 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.entity.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-memory queue of OPEN complaints, highest priority first and oldest first within a
+ * priority. Agents claim the head instead of re-reading and sorting every pending complaint.
+ * The database stays the arbiter: a claim only counts once the conditional update in
+ * {@link ComplaintRepository#claim} succeeds, so two agents (or nodes) never get the same
+ * complaint. Entries that were closed or claimed elsewhere are dropped when they reach the
+ * head, and the periodic reload picks up anything this node missed.
+ */
+@Component
+public class ComplaintDispatchQueue implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintDispatchQueue.class);
+
+    private static final Comparator<Entry> DISPATCH_ORDER = Comparator
+            .comparing((Entry e) -> e.priority, Comparator.reverseOrder())
+            .thenComparing(e -> e.createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(e -> e.id);
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Value("${complaint.dispatch.max-claim-attempts:50}")
+    private int maxClaimAttempts = 50;
+
+    private final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(DISPATCH_ORDER);
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder staleDropped = new LongAdder();
+    private final LongAdder emptyPolls = new LongAdder();
+
+    /**
+     * Adds the complaint, or moves it if its priority changed.
+     */
+    public void offer(Long complaintId, Priority priority, LocalDateTime createdAt) {
+        if (complaintId == null) {
+            return;
+        }
+        Priority effective = priority != null ? priority : Priority.MEDIUM;
+        entries.compute(complaintId, (id, previous) -> {
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            Entry entry = new Entry(id, effective, createdAt);
+            queue.add(entry);
+            return entry;
+        });
+        offered.increment();
+    }
+
+    /**
+     * Offers once the surrounding transaction commits, so no agent can claim a row
+     * that is not yet visible to the conditional update.
+     */
+    public void offerAfterCommit(Long complaintId, Priority priority, LocalDateTime createdAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(complaintId, priority, createdAt);
+                }
+            });
+        } else {
+            offer(complaintId, priority, createdAt);
+        }
+    }
+
+    public void remove(Long complaintId) {
+        if (complaintId == null) {
+            return;
+        }
+        entries.computeIfPresent(complaintId, (id, entry) -> {
+            queue.remove(entry);
+            return null;
+        });
+    }
+
+    /**
+     * Takes entries from the head until {@code claim} succeeds for one of them. Entries the
+     * claim rejects are no longer claimable and are dropped.
+     *
+     * @return the claimed complaint id, or {@code null} if nothing could be claimed
+     */
+    public Long claimNext(Predicate<Long> claim) {
+        for (int attempt = 0; attempt < maxClaimAttempts; attempt++) {
+            Long id = poll();
+            if (id == null) {
+                emptyPolls.increment();
+                return null;
+            }
+            if (claim.test(id)) {
+                claimed.increment();
+                return id;
+            }
+            staleDropped.increment();
+        }
+        return null;
+    }
+
+    private Long poll() {
+        Entry head;
+        while ((head = queue.pollFirst()) != null) {
+            // Fails if the entry was removed or re-prioritised after we took it
+            if (entries.remove(head.id, head)) {
+                return head.id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Re-seeds the queue with OPEN complaints at startup and periodically, covering
+     * complaints created or reopened on other nodes and claims whose transaction rolled back.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${complaint.dispatch.reload-interval-ms:300000}",
+               initialDelayString = "${complaint.dispatch.reload-interval-ms:300000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        List<ComplaintRepository.DispatchEntry> open = complaintRepository.findOpenDispatchEntries();
+        for (ComplaintRepository.DispatchEntry entry : open) {
+            Entry current = entries.get(entry.getId());
+            if (current == null || current.priority != entry.getPriority()) {
+                offer(entry.getId(), entry.getPriority(), entry.getCreatedAt());
+            }
+        }
+        logger.info("Loaded {} open complaints into the dispatch queue in {} ms",
+                open.size(), System.currentTimeMillis() - start);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("complaint.dispatchQueue.size", (long) entries.size());
+        stats.put("complaint.dispatchQueue.offered", offered.sum());
+        stats.put("complaint.dispatchQueue.claimed", claimed.sum());
+        stats.put("complaint.dispatchQueue.staleDropped", staleDropped.sum());
+        stats.put("complaint.dispatchQueue.emptyPolls", emptyPolls.sum());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final Priority priority;
+        private final LocalDateTime createdAt;
+
+        private Entry(Long id, Priority priority, LocalDateTime createdAt) {
+            this.id = id;
+            this.priority = priority;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.util.MinHashLsh;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * MinHash/LSH index over the subject and description of pending complaints, used to file a
+ * new complaint under the incident of a near-identical pending one. An incident is named by
+ * the id of its first complaint. Resolved and closed complaints leave the index, so a
+ * recurring problem opens a new incident. Complaints created on other nodes are picked up by
+ * the periodic reload; until then two nodes may open separate incidents for the same outage.
+ */
+@Component
+public class ComplaintIncidentIndex implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintIncidentIndex.class);
+
+    private static final long HASH_SEED = 0x5EED_C0FFEEL;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private final MinHashLsh lsh;
+    private final double similarityThreshold;
+
+    // Incident of every indexed complaint
+    private final Map<Long, Long> incidents = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+
+    public ComplaintIncidentIndex(@Value("${complaint.incident.bands:32}") int bands,
+                                  @Value("${complaint.incident.rows:4}") int rows,
+                                  @Value("${complaint.incident.similarity-threshold:0.6}") double similarityThreshold) {
+        this.lsh = new MinHashLsh(bands, rows, HASH_SEED);
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public int[] signature(String subject, String description) {
+        return lsh.signature(subject, description);
+    }
+
+    /**
+     * Returns the incident of a pending complaint that is similar enough, or {@code null} if
+     * there is none. Near-duplicates all belong to the same incident, so the first match is
+     * used instead of ranking every complaint of a large incident.
+     */
+    public Long findIncident(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        lookups.increment();
+        MinHashLsh.Match match = lsh.findFirst(signature, similarityThreshold);
+        Long incidentId = match != null ? incidents.get(match.getId()) : null;
+        if (incidentId != null) {
+            matched.increment();
+        }
+        return incidentId;
+    }
+
+    public void add(Long complaintId, Long incidentId, int[] signature) {
+        if (complaintId == null || signature == null) {
+            return;
+        }
+        incidents.put(complaintId, incidentId != null ? incidentId : complaintId);
+        lsh.put(complaintId, signature);
+    }
+
+    /**
+     * Adds once the surrounding transaction commits, so complaints never join the incident
+     * of a complaint that was rolled back.
+     */
+    public void addAfterCommit(Long complaintId, Long incidentId, int[] signature) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(complaintId, incidentId, signature);
+                }
+            });
+        } else {
+            add(complaintId, incidentId, signature);
+        }
+    }
+
+    public void remove(Long complaintId) {
+        if (complaintId != null && incidents.remove(complaintId) != null) {
+            lsh.remove(complaintId);
+        }
+    }
+
+    /**
+     * Indexes pending complaints this node has not seen, covering other nodes and restarts,
+     * and drops those that were resolved or closed elsewhere. Only new complaints are hashed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${complaint.incident.reload-interval-ms:60000}",
+               initialDelayString = "${complaint.incident.reload-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.currentTimeMillis();
+        // Complaints added while the reload runs are not in this set and are never dropped
+        Set<Long> stale = new HashSet<>(incidents.keySet());
+        int[] added = {0};
+        try (Stream<ComplaintRepository.IncidentDocument> rows = complaintRepository.streamPendingIncidentDocuments()) {
+            rows.forEach(row -> {
+                stale.remove(row.getId());
+                Long incidentId = row.getIncidentId() != null ? row.getIncidentId() : row.getId();
+                Long current = incidents.get(row.getId());
+                if (current == null) {
+                    add(row.getId(), incidentId, signature(row.getSubject(), row.getDescription()));
+                    added[0]++;
+                } else if (!current.equals(incidentId)) {
+                    incidents.put(row.getId(), incidentId);
+                }
+            });
+        }
+        stale.forEach(this::remove);
+        logger.info("Complaint incident index: {} added, {} dropped, {} indexed in {} ms",
+                added[0], stale.size(), incidents.size(), System.currentTimeMillis() - start);
+    }
+
+    public int size() {
+        return incidents.size();
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("complaint.incidents.indexed", (long) incidents.size());
+        stats.put("complaint.incidents.lookups", lookups.sum());
+        stats.put("complaint.incidents.matched", matched.sum());
+        return stats;
+    }
+}
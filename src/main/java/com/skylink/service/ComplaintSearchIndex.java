@@ -0,0 +1,249 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.util.InvertedIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index over complaint subjects and descriptions, ranked with BM25. New complaints
+ * are indexed as they commit; a periodic catch-up re-reads rows updated since the last one,
+ * which covers changes made on other nodes. The index is checkpointed to a local file so a
+ * restart only replays what changed since the checkpoint instead of re-reading every row.
+ */
+@Component
+public class ComplaintSearchIndex implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSearchIndex.class);
+
+    static final String CHECKPOINT_FILE = "complaints.idx";
+    private static final int CHECKPOINT_MAGIC = 0x534b4349;
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // Catch-up re-reads this far back, covering rows whose transaction committed late
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Value("${complaint.search.index-dir:}")
+    private String indexDir = "";
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile LocalDateTime watermark;
+    private volatile boolean ready;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder indexed = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder checkpoints = new LongAdder();
+
+    /**
+     * Restores the last checkpoint and replays rows changed since, or reads every complaint
+     * if there is no usable checkpoint. Searches are refused until this has finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void initialize() {
+        long start = System.currentTimeMillis();
+        if (loadCheckpoint()) {
+            int replayed = catchUp();
+            logger.info("Restored complaint search index with {} documents and replayed {} changes in {} ms",
+                    index.size(), replayed, System.currentTimeMillis() - start);
+        } else {
+            rebuildIndex();
+            logger.info("Built complaint search index with {} documents in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        }
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${complaint.search.refresh-interval-ms:30000}",
+               initialDelayString = "${complaint.search.refresh-interval-ms:30000}")
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        if (ready) {
+            catchUp();
+        }
+    }
+
+    /**
+     * Rebuilds from scratch, dropping complaints deleted since the last rebuild.
+     */
+    @Scheduled(fixedDelayString = "${complaint.search.rebuild-interval-ms:86400000}",
+               initialDelayString = "${complaint.search.rebuild-interval-ms:86400000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        if (ready) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        LocalDateTime start = LocalDateTime.now();
+        InvertedIndex rebuilt = new InvertedIndex();
+        try (Stream<ComplaintRepository.SearchDocument> rows = complaintRepository.streamSearchDocuments()) {
+            rows.forEach(row -> rebuilt.put(row.getId(), row.getSubject(), row.getDescription()));
+        }
+        // Complaints indexed into the old index meanwhile are picked up by the next catch-up
+        index = rebuilt;
+        watermark = start.minus(CATCH_UP_OVERLAP);
+        dirty.set(true);
+        rebuilds.increment();
+    }
+
+    private int catchUp() {
+        LocalDateTime start = LocalDateTime.now();
+        int[] count = {0};
+        try (Stream<ComplaintRepository.SearchDocument> rows = complaintRepository.streamSearchDocumentsUpdatedSince(watermark)) {
+            rows.forEach(row -> {
+                index.put(row.getId(), row.getSubject(), row.getDescription());
+                count[0]++;
+            });
+        }
+        watermark = start.minus(CATCH_UP_OVERLAP);
+        if (count[0] > 0) {
+            indexed.add(count[0]);
+            dirty.set(true);
+        }
+        return count[0];
+    }
+
+    public void index(Long complaintId, String subject, String description) {
+        if (complaintId == null) {
+            return;
+        }
+        index.put(complaintId, subject, description);
+        indexed.increment();
+        dirty.set(true);
+    }
+
+    /**
+     * Indexes once the surrounding transaction commits, so a rolled back complaint never
+     * shows up in results.
+     */
+    public void indexAfterCommit(Long complaintId, String subject, String description) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(complaintId, subject, description);
+                }
+            });
+        } else {
+            index(complaintId, subject, description);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public InvertedIndex.SearchResult search(String query, int offset, int limit) {
+        searches.increment();
+        return index.search(query, offset, limit);
+    }
+
+    /**
+     * Writes the index and its watermark to a temporary file and moves it over the previous
+     * checkpoint, so a crash mid-write leaves the old checkpoint intact.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${complaint.search.checkpoint-interval-ms:600000}",
+               initialDelayString = "${complaint.search.checkpoint-interval-ms:600000}")
+    public void checkpoint() {
+        Path dir = checkpointDir();
+        if (dir == null || !ready || !dirty.getAndSet(false)) {
+            return;
+        }
+        // Read the watermark first; anything indexed after it is replayed again, which is harmless
+        LocalDateTime mark = watermark;
+        InvertedIndex current = index;
+        long start = System.currentTimeMillis();
+        Path target = dir.resolve(CHECKPOINT_FILE);
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeUTF(mark.toString());
+                current.writeTo(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoints.increment();
+            logger.debug("Checkpointed complaint search index ({} documents) in {} ms",
+                    current.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to checkpoint complaint search index to {}", target, e);
+        }
+    }
+
+    private boolean loadCheckpoint() {
+        Path dir = checkpointDir();
+        if (dir == null || !Files.isRegularFile(dir.resolve(CHECKPOINT_FILE))) {
+            return false;
+        }
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                logger.warn("Ignoring complaint search checkpoint {} with an unknown format", file);
+                return false;
+            }
+            LocalDateTime mark = LocalDateTime.parse(in.readUTF());
+            index = InvertedIndex.readFrom(in);
+            watermark = mark;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable complaint search checkpoint {}", file, e);
+            index = new InvertedIndex();
+            return false;
+        }
+    }
+
+    private Path checkpointDir() {
+        return indexDir == null || indexDir.isBlank() ? null : Paths.get(indexDir);
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        InvertedIndex current = index;
+        stats.put("complaint.searchIndex.documents", (long) current.size());
+        stats.put("complaint.searchIndex.terms", (long) current.termCount());
+        stats.put("complaint.searchIndex.searches", searches.sum());
+        stats.put("complaint.searchIndex.indexed", indexed.sum());
+        stats.put("complaint.searchIndex.rebuilds", rebuilds.sum());
+        stats.put("complaint.searchIndex.checkpoints", checkpoints.sum());
+        return stats;
+    }
+}
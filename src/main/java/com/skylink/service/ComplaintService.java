@@ -3,17 +3,30 @@ package com.skylink.service;
 import com.skylink.dao.ComplaintRepository;
 import com.skylink.dao.UserRepository;
 import com.skylink.dto.ComplaintRequest;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.ComplaintResponse;
+import com.skylink.dto.IncidentResponse;
 import com.skylink.entity.Complaint;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Priority;
 import com.skylink.entity.User;
+import com.skylink.exception.InvalidRequestException;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.exception.ServiceUnavailableException;
+import com.skylink.util.InvertedIndex;
+import com.skylink.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +39,24 @@ public class ComplaintService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ComplaintDispatchQueue dispatchQueue;
+
+    @Autowired
+    private ComplaintSearchIndex searchIndex;
+
+    @Autowired
+    private ComplaintSlaMonitor slaMonitor;
+
+    @Autowired
+    private ComplaintIncidentIndex incidentIndex;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize = 500;
+
+    @Value("${complaint.search.max-offset:10000}")
+    private int maxSearchOffset = 10000;
+
     public ComplaintResponse createComplaint(ComplaintRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
@@ -36,53 +67,81 @@ public class ComplaintService {
         complaint.setDescription(request.getDescription());
         complaint.setPriority(request.getPriority() != null ? request.getPriority() : Priority.MEDIUM);
 
+        int[] signature = incidentIndex.signature(request.getSubject(), request.getDescription());
+        Long incidentId = incidentIndex.findIncident(signature);
+        complaint.setIncidentId(incidentId);
+
         Complaint savedComplaint = complaintRepository.save(complaint);
+        if (incidentId != null) {
+            complaintRepository.openIncident(incidentId);
+        }
+        incidentIndex.addAfterCommit(savedComplaint.getId(), incidentId, signature);
+        dispatchQueue.offerAfterCommit(savedComplaint.getId(), savedComplaint.getPriority(), savedComplaint.getCreatedAt());
+        searchIndex.indexAfterCommit(savedComplaint.getId(), savedComplaint.getSubject(), savedComplaint.getDescription());
+        slaMonitor.trackAfterCommit(savedComplaint.getId(), savedComplaint.getPriority(), savedComplaint.getCreatedAt());
         return convertToComplaintResponse(savedComplaint);
     }
 
+    @Transactional(readOnly = true)
     public List<ComplaintResponse> getUserComplaints(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        return complaintRepository.findByUserOrderByCreatedAtDesc(user).stream()
-                .map(this::convertToComplaintResponse)
-                .collect(Collectors.toList());
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return complaintRepository.findResponsesByUserId(userId);
     }
 
-    public List<ComplaintResponse> getAllComplaints() {
-        return complaintRepository.findAll().stream()
-                .map(this::convertToComplaintResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ComplaintResponse> getAllComplaints(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<ComplaintResponse> rows = complaintRepository.findResponsesAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, c -> new KeysetCursor(c.getCreatedAt(), c.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<ComplaintResponse> getComplaintsByStatus(ComplaintStatus status) {
-        return complaintRepository.findByStatusOrderByCreatedAtDesc(status).stream()
-                .map(this::convertToComplaintResponse)
-                .collect(Collectors.toList());
+        return complaintRepository.findResponsesByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public List<ComplaintResponse> getPendingComplaints() {
-        return complaintRepository.findPendingComplaintsByPriority().stream()
-                .map(this::convertToComplaintResponse)
-                .collect(Collectors.toList());
+        return complaintRepository.findPendingResponsesByPriority();
     }
 
+    /**
+     * Assigns the highest-priority OPEN complaint to the agent and moves it to IN_PROGRESS.
+     */
+    public Optional<ComplaintResponse> claimNextComplaint(Long agentId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long claimedId = dispatchQueue.claimNext(id -> complaintRepository.claim(id, agentId, now) == 1);
+        if (claimedId == null) {
+            return Optional.empty();
+        }
+        return complaintRepository.findResponseById(claimedId);
+    }
+
+    @Transactional(readOnly = true)
     public ComplaintResponse getComplaintById(Long id) {
-        Complaint complaint = complaintRepository.findById(id)
+        return complaintRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Complaint not found with id: " + id));
-        return convertToComplaintResponse(complaint);
     }
 
     public ComplaintResponse updateComplaintStatus(Long id, ComplaintStatus status, String adminResponse) {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Complaint not found with id: " + id));
 
+        boolean firstResolution = status == ComplaintStatus.RESOLVED && complaint.getResolvedAt() == null;
         complaint.setStatus(status);
         if (adminResponse != null && !adminResponse.trim().isEmpty()) {
             complaint.setAdminResponse(adminResponse);
         }
+        if (status == ComplaintStatus.OPEN) {
+            complaint.setAssignedAgentId(null);
+        }
 
         Complaint updatedComplaint = complaintRepository.save(complaint);
+        syncTracking(id, status, updatedComplaint.getPriority(), updatedComplaint.getCreatedAt(),
+                updatedComplaint.getSlaBreachedAt(), firstResolution);
         return convertToComplaintResponse(updatedComplaint);
     }
 
@@ -92,23 +151,103 @@ public class ComplaintService {
 
         complaint.setPriority(priority);
         Complaint updatedComplaint = complaintRepository.save(complaint);
+        syncTracking(id, updatedComplaint.getStatus(), priority, updatedComplaint.getCreatedAt(),
+                updatedComplaint.getSlaBreachedAt(), false);
         return convertToComplaintResponse(updatedComplaint);
     }
 
-    public List<ComplaintResponse> searchComplaints(String keyword) {
-        return complaintRepository.searchByKeyword(keyword).stream()
-                .map(this::convertToComplaintResponse)
-                .collect(Collectors.toList());
+    /**
+     * Ranked full-text search; {@code after} is the cursor returned with the previous page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ComplaintResponse> searchComplaints(String keyword, String after, int size) {
+        if (!searchIndex.isReady()) {
+            throw new ServiceUnavailableException("Complaint search index is still loading, please retry shortly");
+        }
+        int offset = decodeSearchCursor(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        InvertedIndex.SearchResult result = searchIndex.search(keyword, offset, limit);
+
+        List<Long> ids = result.getHits().stream().map(InvertedIndex.Hit::getId).toList();
+        Map<Long, ComplaintResponse> byId = ids.isEmpty() ? Map.of()
+                : complaintRepository.findResponsesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(ComplaintResponse::getId, Function.identity()));
+        // Keep the index's ranking; ids deleted since they were indexed are skipped
+        List<ComplaintResponse> items = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        String next = offset + limit < result.getTotalHits() ? String.valueOf(offset + limit) : null;
+        return new CursorPage<>(items, next);
+    }
+
+    private int decodeSearchCursor(String after) {
+        if (after == null || after.isEmpty()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(after);
+            if (offset >= 0 && offset <= maxSearchOffset) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new InvalidRequestException("Invalid page cursor");
+    }
+
+    /**
+     * Incidents that still have pending complaints, largest first.
+     */
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> getOpenIncidents(int size) {
+        return complaintRepository.findOpenIncidents(PageRequest.of(0, CursorPage.clampSize(size, maxPageSize)));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ComplaintResponse> getIncidentComplaints(Long incidentId, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<ComplaintResponse> rows = complaintRepository.findResponsesByIncidentIdAfter(
+                incidentId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1));
+        if (rows.isEmpty() && cursor == KeysetCursor.START) {
+            throw new ResourceNotFoundException("Incident not found with id: " + incidentId);
+        }
+        return CursorPage.of(rows, limit, c -> new KeysetCursor(c.getCreatedAt(), c.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public long getTotalComplaints() {
         return complaintRepository.count();
     }
 
+    @Transactional(readOnly = true)
     public long getComplaintsByStatus1(ComplaintStatus status) {
         return complaintRepository.countByStatus(status);
     }
 
+    /**
+     * Brings the dispatch queue, SLA clock and incident index in line with a complaint's new
+     * status and priority. Queue and clock updates take effect when the surrounding transaction
+     * commits.
+     */
+    public void syncTracking(Long id, ComplaintStatus status, Priority priority, LocalDateTime createdAt,
+                             LocalDateTime slaBreachedAt, boolean firstResolution) {
+        if (status == ComplaintStatus.OPEN) {
+            dispatchQueue.offerAfterCommit(id, priority, createdAt);
+        } else {
+            dispatchQueue.remove(id);
+        }
+        if (status == ComplaintStatus.OPEN || status == ComplaintStatus.IN_PROGRESS) {
+            if (slaBreachedAt == null) {
+                slaMonitor.trackAfterCommit(id, priority, createdAt);
+            }
+        } else {
+            slaMonitor.untrack(id);
+            incidentIndex.remove(id);
+        }
+        if (firstResolution) {
+            slaMonitor.recordResolutionAfterCommit(priority, createdAt, LocalDateTime.now());
+        }
+    }
+
     private ComplaintResponse convertToComplaintResponse(Complaint complaint) {
         ComplaintResponse response = new ComplaintResponse();
         response.setId(complaint.getId());
@@ -123,6 +262,7 @@ public class ComplaintService {
         response.setCreatedAt(complaint.getCreatedAt());
         response.setUpdatedAt(complaint.getUpdatedAt());
         response.setResolvedAt(complaint.getResolvedAt());
+        response.setIncidentId(complaint.getIncidentId());
         return response;
     }
 }
\ No newline at end of file
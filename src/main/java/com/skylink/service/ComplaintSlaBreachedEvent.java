@@ -0,0 +1,28 @@
+package com.skylink.service;
+
+import com.skylink.entity.Priority;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published once per complaint, on the node that recorded the breach, when a complaint is
+ * still open or in progress after its priority's SLA target.
+ */
+public class ComplaintSlaBreachedEvent {
+
+    private final Long complaintId;
+    private final Priority priority;
+    private final LocalDateTime breachedAt;
+
+    public ComplaintSlaBreachedEvent(Long complaintId, Priority priority, LocalDateTime breachedAt) {
+        this.complaintId = complaintId;
+        this.priority = priority;
+        this.breachedAt = breachedAt;
+    }
+
+    public Long getComplaintId() { return complaintId; }
+
+    public Priority getPriority() { return priority; }
+
+    public LocalDateTime getBreachedAt() { return breachedAt; }
+}
@@ -0,0 +1,285 @@
+package com.skylink.service;
+
+import com.skylink.config.SchedulingConfig;
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.entity.Complaint;
+import com.skylink.dto.ComplaintSlaResponse;
+import com.skylink.entity.Priority;
+import com.skylink.util.HierarchicalTimingWheel;
+import com.skylink.util.QuantileSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the SLA deadline of every open or in-progress complaint in a timing wheel and
+ * publishes a {@link ComplaintSlaBreachedEvent} when one passes. Breaches are recorded in
+ * chunks, locking the rows that are still unbreached, so each is escalated once even with
+ * several nodes ticking.
+ * Resolution times are kept per priority in quantile sketches, seeded from the recent history
+ * at startup and on each reload, so the SLA report never scans the complaints table.
+ */
+@Component
+public class ComplaintSlaMonitor implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSlaMonitor.class);
+
+    static final double SKETCH_ACCURACY = 0.01;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${complaint.sla.breach-chunk-size:500}")
+    private int breachChunkSize = 500;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Map<Priority, Duration> targets = new EnumMap<>(Priority.class);
+    private final int historyDays;
+
+    // Priority of each complaint in the wheel, carried into the breach event
+    private final Map<Long, Priority> tracked = new ConcurrentHashMap<>();
+    private volatile Map<Priority, QuantileSketch> resolutionTimes = emptySketches();
+    private volatile Map<Priority, LongAdder> breaches = emptyCounters();
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+    private final LongAdder beyondHorizon = new LongAdder();
+    private final LongAdder markFailures = new LongAdder();
+
+    public ComplaintSlaMonitor(@Value("${complaint.sla.tick-ms:1000}") long tickMillis,
+                               @Value("${complaint.sla.urgent-target-ms:14400000}") long urgentTargetMillis,
+                               @Value("${complaint.sla.high-target-ms:86400000}") long highTargetMillis,
+                               @Value("${complaint.sla.medium-target-ms:259200000}") long mediumTargetMillis,
+                               @Value("${complaint.sla.low-target-ms:604800000}") long lowTargetMillis,
+                               @Value("${complaint.sla.history-days:30}") int historyDays) {
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, 6, 4, System.currentTimeMillis());
+        targets.put(Priority.URGENT, Duration.ofMillis(urgentTargetMillis));
+        targets.put(Priority.HIGH, Duration.ofMillis(highTargetMillis));
+        targets.put(Priority.MEDIUM, Duration.ofMillis(mediumTargetMillis));
+        targets.put(Priority.LOW, Duration.ofMillis(lowTargetMillis));
+        this.historyDays = historyDays;
+    }
+
+    /**
+     * Starts or restarts the complaint's SLA clock; the deadline counts from creation.
+     */
+    public void track(Long complaintId, Priority priority, LocalDateTime createdAt) {
+        if (complaintId == null || createdAt == null) {
+            return;
+        }
+        Priority effective = priority != null ? priority : Priority.MEDIUM;
+        tracked.put(complaintId, effective);
+        if (!wheel.schedule(complaintId, toEpochMillis(createdAt.plus(targets.get(effective))))) {
+            tracked.remove(complaintId);
+            beyondHorizon.increment();
+        }
+    }
+
+    public void trackAfterCommit(Long complaintId, Priority priority, LocalDateTime createdAt) {
+        afterCommit(() -> track(complaintId, priority, createdAt));
+    }
+
+    public void untrack(Long complaintId) {
+        if (complaintId != null) {
+            wheel.cancel(complaintId);
+            tracked.remove(complaintId);
+        }
+    }
+
+    /**
+     * Adds the complaint's time to resolution once the surrounding transaction commits.
+     */
+    public void recordResolutionAfterCommit(Priority priority, LocalDateTime createdAt, LocalDateTime resolvedAt) {
+        afterCommit(() -> recordResolution(priority, createdAt, resolvedAt));
+    }
+
+    public void recordResolution(Priority priority, LocalDateTime createdAt, LocalDateTime resolvedAt) {
+        if (createdAt == null || resolvedAt == null) {
+            return;
+        }
+        resolutionTimes.get(priority != null ? priority : Priority.MEDIUM)
+                .add(Duration.between(createdAt, resolvedAt).toMillis());
+    }
+
+    @Scheduled(fixedRateString = "${complaint.sla.tick-ms:1000}", scheduler = SchedulingConfig.TIMING_WHEEL_SCHEDULER)
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        fired.add(due.size());
+        Map<Long, Priority> priorities = new LinkedHashMap<>();
+        for (Long id : due) {
+            Priority priority = tracked.remove(id);
+            if (priority != null) {
+                priorities.put(id, priority);
+            }
+        }
+        List<Long> ids = new ArrayList<>(priorities.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += breachChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + breachChunkSize, ids.size()));
+            List<Long> stamped;
+            try {
+                stamped = transactionTemplate.execute(status -> markChunk(chunk, now));
+            } catch (RuntimeException e) {
+                markFailures.add(chunk.size());
+                logger.warn("Failed to record SLA breach of {} complaints, leaving them to the next reload", chunk.size(), e);
+                continue;
+            }
+            // Published after commit, and only for the rows this node stamped
+            for (Long id : stamped) {
+                Priority priority = priorities.get(id);
+                escalated.increment();
+                breaches.get(priority).increment();
+                logger.warn("Complaint {} breached its {} SLA of {}", id, priority, targets.get(priority));
+                eventPublisher.publishEvent(new ComplaintSlaBreachedEvent(id, priority, now));
+            }
+        }
+    }
+
+    // Complaints resolved meanwhile, possibly on another node, or already escalated are skipped
+    private List<Long> markChunk(List<Long> chunk, LocalDateTime now) {
+        List<Long> unbreached = complaintRepository.lockUnbreachedByIdIn(chunk).stream().map(Complaint::getId).toList();
+        if (!unbreached.isEmpty()) {
+            complaintRepository.markSlaBreached(unbreached, now);
+        }
+        return unbreached;
+    }
+
+    /**
+     * Re-arms the clocks of unbreached pending complaints, covering complaints created on
+     * other nodes and restarts, and rebuilds the resolution histograms from the last
+     * {@code complaint.sla.history-days} days.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${complaint.sla.reload-interval-ms:3600000}",
+               initialDelayString = "${complaint.sla.reload-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.currentTimeMillis();
+        List<ComplaintRepository.SlaTimer> timers = complaintRepository.findUnbreachedSlaTimers();
+        for (ComplaintRepository.SlaTimer timer : timers) {
+            if (tracked.get(timer.getId()) != timer.getPriority()) {
+                track(timer.getId(), timer.getPriority(), timer.getCreatedAt());
+            }
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusDays(historyDays);
+        Map<Priority, QuantileSketch> sketches = emptySketches();
+        try (Stream<ComplaintRepository.ResolutionTime> rows = complaintRepository.streamResolutionTimesSince(since)) {
+            rows.forEach(row -> sketches.get(row.getPriority() != null ? row.getPriority() : Priority.MEDIUM)
+                    .add(Duration.between(row.getCreatedAt(), row.getResolvedAt()).toMillis()));
+        }
+        Map<Priority, LongAdder> counters = emptyCounters();
+        complaintRepository.countSlaBreachesSince(since).forEach(c -> counters.get(c.getPriority()).add(c.getTotal()));
+        resolutionTimes = sketches;
+        breaches = counters;
+
+        logger.info("Loaded {} complaint SLA timers and {} resolution times in {} ms", timers.size(),
+                sketches.values().stream().mapToLong(QuantileSketch::getCount).sum(), System.currentTimeMillis() - start);
+    }
+
+    public List<ComplaintSlaResponse> getReport() {
+        Map<Priority, Long> open = new EnumMap<>(Priority.class);
+        tracked.values().forEach(p -> open.merge(p, 1L, Long::sum));
+
+        List<ComplaintSlaResponse> report = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            ComplaintSlaResponse row = new ComplaintSlaResponse(priority, targets.get(priority).toMinutes());
+            QuantileSketch sketch = resolutionTimes.get(priority).copy();
+            row.setResolved(sketch.getCount());
+            if (sketch.getCount() > 0) {
+                row.setP50Minutes(toMinutes(sketch.quantile(0.5)));
+                row.setP90Minutes(toMinutes(sketch.quantile(0.9)));
+                row.setP99Minutes(toMinutes(sketch.quantile(0.99)));
+                row.setMaxMinutes(toMinutes(sketch.getMax()));
+                row.setMeanMinutes(toMinutes(sketch.getMean()));
+            }
+            row.setBreaches(breaches.get(priority).sum());
+            row.setOpenTracked(open.getOrDefault(priority, 0L));
+            report.add(row);
+        }
+        return report;
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("complaint.sla.tracked", (long) wheel.size());
+        stats.put("complaint.sla.fired", fired.sum());
+        stats.put("complaint.sla.escalated", escalated.sum());
+        stats.put("complaint.sla.beyondHorizon", beyondHorizon.sum());
+        stats.put("complaint.sla.markFailures", markFailures.sum());
+        return stats;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Map<Priority, QuantileSketch> emptySketches() {
+        Map<Priority, QuantileSketch> sketches = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            sketches.put(priority, new QuantileSketch(SKETCH_ACCURACY));
+        }
+        return sketches;
+    }
+
+    private static Map<Priority, LongAdder> emptyCounters() {
+        Map<Priority, LongAdder> counters = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            counters.put(priority, new LongAdder());
+        }
+        return counters;
+    }
+
+    private static double toMinutes(double millis) {
+        return Math.round(millis / 600.0) / 100.0;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,182 @@
+package com.skylink.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.dao.SubscriptionRepository;
+import com.skylink.dao.UserRepository;
+import com.skylink.dto.ComplaintResponse;
+import com.skylink.dto.SubscriptionResponse;
+import com.skylink.dto.UserResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes full-table exports row by row from a forward-only database stream. Rows are read
+ * as DTO projections, so the persistence context never holds managed entities and memory
+ * stays flat regardless of table size. Each export runs in its own read-only transaction
+ * on the thread that writes the response.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final Map<String, Function<UserResponse, Object>> USER_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<SubscriptionResponse, Object>> SUBSCRIPTION_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<ComplaintResponse, Object>> COMPLAINT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        USER_COLUMNS.put("id", UserResponse::getId);
+        USER_COLUMNS.put("name", UserResponse::getName);
+        USER_COLUMNS.put("email", UserResponse::getEmail);
+        USER_COLUMNS.put("mobileNumber", UserResponse::getMobileNumber);
+        USER_COLUMNS.put("role", UserResponse::getRole);
+        USER_COLUMNS.put("active", UserResponse::getActive);
+        USER_COLUMNS.put("createdAt", UserResponse::getCreatedAt);
+        USER_COLUMNS.put("updatedAt", UserResponse::getUpdatedAt);
+
+        SUBSCRIPTION_COLUMNS.put("id", SubscriptionResponse::getId);
+        SUBSCRIPTION_COLUMNS.put("userId", SubscriptionResponse::getUserId);
+        SUBSCRIPTION_COLUMNS.put("userName", SubscriptionResponse::getUserName);
+        SUBSCRIPTION_COLUMNS.put("userEmail", SubscriptionResponse::getUserEmail);
+        SUBSCRIPTION_COLUMNS.put("planId", SubscriptionResponse::getPlanId);
+        SUBSCRIPTION_COLUMNS.put("planName", SubscriptionResponse::getPlanName);
+        SUBSCRIPTION_COLUMNS.put("planPrice", SubscriptionResponse::getPlanPrice);
+        SUBSCRIPTION_COLUMNS.put("startDate", SubscriptionResponse::getStartDate);
+        SUBSCRIPTION_COLUMNS.put("endDate", SubscriptionResponse::getEndDate);
+        SUBSCRIPTION_COLUMNS.put("status", SubscriptionResponse::getStatus);
+        SUBSCRIPTION_COLUMNS.put("createdAt", SubscriptionResponse::getCreatedAt);
+        SUBSCRIPTION_COLUMNS.put("updatedAt", SubscriptionResponse::getUpdatedAt);
+
+        COMPLAINT_COLUMNS.put("id", ComplaintResponse::getId);
+        COMPLAINT_COLUMNS.put("userId", ComplaintResponse::getUserId);
+        COMPLAINT_COLUMNS.put("userName", ComplaintResponse::getUserName);
+        COMPLAINT_COLUMNS.put("userEmail", ComplaintResponse::getUserEmail);
+        COMPLAINT_COLUMNS.put("subject", ComplaintResponse::getSubject);
+        COMPLAINT_COLUMNS.put("description", ComplaintResponse::getDescription);
+        COMPLAINT_COLUMNS.put("status", ComplaintResponse::getStatus);
+        COMPLAINT_COLUMNS.put("priority", ComplaintResponse::getPriority);
+        COMPLAINT_COLUMNS.put("adminResponse", ComplaintResponse::getAdminResponse);
+        COMPLAINT_COLUMNS.put("createdAt", ComplaintResponse::getCreatedAt);
+        COMPLAINT_COLUMNS.put("updatedAt", ComplaintResponse::getUpdatedAt);
+        COMPLAINT_COLUMNS.put("resolvedAt", ComplaintResponse::getResolvedAt);
+        COMPLAINT_COLUMNS.put("incidentId", ComplaintResponse::getIncidentId);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<UserResponse> rows = userRepository.streamAllResponses()) {
+            return write("users", rows, format, USER_COLUMNS, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportSubscriptions(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<SubscriptionResponse> rows = subscriptionRepository.streamAllResponses()) {
+            return write("subscriptions", rows, format, SUBSCRIPTION_COLUMNS, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportComplaints(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ComplaintResponse> rows = complaintRepository.streamAllResponses()) {
+            return write("complaints", rows, format, COMPLAINT_COLUMNS, out);
+        }
+    }
+
+    private <T> long write(String name, Stream<T> rows, ExportFormat format,
+                           Map<String, Function<T, Object>> columns, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long count = format == ExportFormat.CSV
+                ? writeCsv(rows.iterator(), columns, writer)
+                : writeNdjson(rows.iterator(), writer);
+        writer.flush();
+        logger.info("Exported {} {} as {} in {} ms", count, name, format, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private <T> long writeNdjson(Iterator<T> rows, Writer writer) throws IOException {
+        // One generator for the whole export; flushing after every row would defeat the buffer
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = 0;
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.flush();
+        return count;
+    }
+
+    private <T> long writeCsv(Iterator<T> rows, Map<String, Function<T, Object>> columns, Writer writer) throws IOException {
+        writer.write(String.join(",", columns.keySet()));
+        writer.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            boolean first = true;
+            for (Function<T, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writeCsvValue(column.apply(row), writer);
+                first = false;
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        return count;
+    }
+
+    // RFC 4180 quoting. Free-text cells that a spreadsheet would evaluate as a formula are
+    // prefixed with a quote, since complaint subjects and names come straight from customers.
+    private static void writeCsvValue(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,11 +1,15 @@
 package com.skylink.service;
 
 import com.skylink.dao.FAQRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.FAQRequest;
 import com.skylink.dto.FAQResponse;
 import com.skylink.entity.FAQ;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,9 @@ public class FAQService {
     @Autowired
     private FAQRepository faqRepository;
 
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize = 500;
+
     public FAQResponse createFAQ(FAQRequest request) {
         FAQ faq = new FAQ();
         faq.setQuestion(request.getQuestion());
@@ -30,28 +37,36 @@ public class FAQService {
         return convertToFAQResponse(savedFAQ);
     }
 
-    public List<FAQResponse> getAllFAQs() {
-        return faqRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public CursorPage<FAQResponse> getAllFAQs(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<FAQResponse> rows = faqRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1)).stream()
                 .map(this::convertToFAQResponse)
                 .collect(Collectors.toList());
+        return CursorPage.of(rows, limit, f -> new KeysetCursor(f.getCreatedAt(), f.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<FAQResponse> getActiveFAQs() {
         return faqRepository.findByActiveTrueOrderByDisplayOrderAsc().stream()
                 .map(this::convertToFAQResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<FAQResponse> getFAQsByCategory(String category) {
         return faqRepository.findActiveFAQsByCategoryOrderByDisplayOrder(category).stream()
                 .map(this::convertToFAQResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
         return faqRepository.findDistinctCategories();
     }
 
+    @Transactional(readOnly = true)
     public FAQResponse getFAQById(Long id) {
         FAQ faq = faqRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ not found with id: " + id));
@@ -91,6 +106,7 @@ public class FAQService {
         faqRepository.delete(faq);
     }
 
+    @Transactional(readOnly = true)
     public List<FAQResponse> searchFAQs(String keyword) {
         return faqRepository.searchByKeyword(keyword).stream()
                 .map(this::convertToFAQResponse)
@@ -0,0 +1,243 @@
+package com.skylink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skylink.dao.IdempotencyRecordRepository;
+import com.skylink.entity.IdempotencyRecord;
+import com.skylink.exception.IdempotencyConflictException;
+import com.skylink.exception.InvalidRequestException;
+import com.skylink.util.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a repeated {@code Idempotency-Key} instead of running the
+ * request again. A key is reserved by inserting a pending row in its own short transaction,
+ * so concurrent retries race on the unique key hash rather than on locks; the response is
+ * then stored in the same transaction as the work itself. Completed responses are also kept
+ * in a bounded in-memory cache, and rows are purged once their TTL has passed.
+ */
+@Service
+public class IdempotencyService implements StatsProvider {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpiringCache<String, StoredResponse> completed;
+    private final long ttlMillis;
+    private final long pendingTimeoutMillis;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${idempotency.cache.max-size:10000}") int cacheMaxSize,
+                              @Value("${idempotency.ttl-ms:86400000}") long ttlMillis,
+                              @Value("${idempotency.pending-timeout-ms:60000}") long pendingTimeoutMillis) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.completed = new ExpiringCache<>(cacheMaxSize);
+        this.ttlMillis = ttlMillis;
+        this.pendingTimeoutMillis = pendingTimeoutMillis;
+    }
+
+    /**
+     * Runs {@code action} once per {@code (scope, idempotencyKey)} pair. Without a key the
+     * action simply runs. A retry with the same key and body gets the first response back;
+     * reusing a key for a different body is rejected, as is a retry that arrives while the
+     * first request is still in flight. If the action fails the key is released so the
+     * client can try again.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String keyHash = sha256(scope + "\n" + idempotencyKey);
+        String requestHash = sha256(writeJson(request));
+
+        StoredResponse cached = completed.get(keyHash);
+        if (cached != null) {
+            return replay(cached, requestHash, bodyType);
+        }
+
+        IdempotencyRecord reservation = reserve(keyHash, requestHash, true);
+        if (reservation.isCompleted()) {
+            StoredResponse stored = StoredResponse.of(reservation);
+            completed.put(keyHash, stored, toEpochMillis(reservation.getExpiresAt()));
+            return replay(stored, requestHash, bodyType);
+        }
+
+        executions.increment();
+        Execution<T> execution;
+        try {
+            execution = transactionTemplate.execute(status -> {
+                ResponseEntity<T> result = action.get();
+                StoredResponse stored = new StoredResponse(requestHash, result.getStatusCode().value(), writeJson(result.getBody()));
+                if (repository.complete(reservation.getId(), stored.status, stored.body) == 0) {
+                    // Our reservation timed out and was taken over; roll back rather than run twice
+                    throw conflict("The request with this " + IDEMPOTENCY_KEY_HEADER + " timed out and was retried");
+                }
+                return new Execution<>(result, stored);
+            });
+        } catch (RuntimeException | Error e) {
+            try {
+                repository.release(reservation.getId());
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+        completed.put(keyHash, execution.stored, toEpochMillis(reservation.getExpiresAt()));
+        return execution.response;
+    }
+
+    /**
+     * Inserts a pending row for the key, or returns the completed row another request stored.
+     * Expired rows and reservations pending longer than the timeout are taken over once.
+     */
+    private IdempotencyRecord reserve(String keyHash, String requestHash, boolean mayTakeOver) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return repository.saveAndFlush(new IdempotencyRecord(keyHash, requestHash, now, now.plus(Duration.ofMillis(ttlMillis))));
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = repository.findByKeyHash(keyHash).orElse(null);
+            if (existing == null) {
+                // Released between our insert and the lookup
+                throw conflict("A request with this " + IDEMPOTENCY_KEY_HEADER + " is being retried; try again");
+            }
+            boolean expired = !existing.getExpiresAt().isAfter(now);
+            boolean abandoned = !existing.isCompleted()
+                    && existing.getCreatedAt().plus(Duration.ofMillis(pendingTimeoutMillis)).isBefore(now);
+            if ((expired || abandoned) && mayTakeOver) {
+                logger.warn("Taking over {} idempotency key reservation created at {}",
+                        expired ? "expired" : "abandoned", existing.getCreatedAt());
+                repository.release(existing.getId());
+                return reserve(keyHash, requestHash, false);
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            }
+            if (!existing.isCompleted()) {
+                throw conflict("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+            }
+            return existing;
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+        }
+        replays.increment();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(REPLAYED_HEADER, "true");
+        try {
+            T body = objectMapper.readValue(stored.body, bodyType);
+            return new ResponseEntity<>(body, headers, HttpStatusCode.valueOf(stored.status));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = completed.stats("idempotency.cache");
+        stats.put("idempotency.executions", executions.sum());
+        stats.put("idempotency.replays", replays.sum());
+        stats.put("idempotency.conflicts", conflicts.sum());
+        return stats;
+    }
+
+    private IdempotencyConflictException conflict(String message) {
+        conflicts.increment();
+        return new IdempotencyConflictException(message);
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize value for idempotency check", e);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String requestHash;
+        private final int status;
+        private final String body;
+
+        private StoredResponse(String requestHash, int status, String body) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.body = body;
+        }
+
+        private static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(record.getRequestHash(), record.getResponseStatus(), record.getResponseBody());
+        }
+    }
+
+    private static final class Execution<T> {
+        private final ResponseEntity<T> response;
+        private final StoredResponse stored;
+
+        private Execution(ResponseEntity<T> response, StoredResponse stored) {
+            this.response = response;
+            this.stored = stored;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.skylink.service;
 
 import com.skylink.entity.User;
+import com.skylink.util.ExpiringCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,21 +12,72 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
-public class JwtService {
+public class JwtService implements StatsProvider {
 
     @Value("${jwt.secret:mySecretKey}") String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours
+    @Value("${jwt.expiration:900000}") // 15 minutes
  Long expiration;
 
+    @Value("${jwt.refresh-expiration:604800000}") // 7 days
+    Long refreshExpiration = 604800000L;
+
+    static final String TOKEN_TYPE_CLAIM = "type";
+    static final String ACCESS_TOKEN = "access";
+    static final String REFRESH_TOKEN = "refresh";
+
+    // Maximum number of verified tokens kept in memory, 0 disables the cache
+    @Value("${jwt.cache.max-size:10000}")
+    int cacheMaxSize = 10000;
+
+    // Key, parser and cache are built lazily so that the @Value fields are set first
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+    private volatile ExpiringCache<String, Claims> claimsCache;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    private ExpiringCache<String, Claims> getClaimsCache() {
+        ExpiringCache<String, Claims> cache = claimsCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = claimsCache;
+                if (cache == null) {
+                    cache = new ExpiringCache<>(cacheMaxSize);
+                    claimsCache = cache;
+                }
+            }
+        }
+        return cache;
     }
 
     public String generateToken(User user) {
@@ -32,15 +85,30 @@ public class JwtService {
         claims.put("userId", user.getId());
         claims.put("role", user.getRole().name());
         claims.put("name", user.getName());
-        return createToken(claims, user.getEmail());
+        claims.put("ver", user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
+        return createToken(claims, user.getEmail(), expiration);
+    }
+
+    /**
+     * Long-lived token that can only be exchanged for a new access token at /api/auth/refresh.
+     */
+    public String generateRefreshToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("ver", user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        return createToken(claims, user.getEmail(), refreshExpiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long validityMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + validityMillis))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -61,25 +129,66 @@ public class JwtService {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    public Integer extractTokenVersion(Claims claims) {
+        Integer version = claims.get("ver", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    public String extractTokenId(Claims claims) {
+        return claims.getId();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token signature and returns its claims. Verified tokens are cached
+     * by hash until they expire, so repeated calls for the same token skip the HMAC check.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+        ExpiringCache<String, Claims> cache = getClaimsCache();
+        String cacheKey = hashToken(token);
+
+        Claims claims = cache.get(cacheKey);
+        if (claims == null) {
+            claims = getParser().parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                cache.put(cacheKey, claims, claims.getExpiration().getTime());
+            }
+        }
+        return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateClaims(parseClaims(token), userDetails);
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        return getClaimsCache().stats("jwt.claimsCache");
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,15 @@
 package com.skylink.service;
 
 import com.skylink.dao.PlanRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.PlanRequest;
 import com.skylink.dto.PlanResponse;
 import com.skylink.entity.Plan;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,9 @@ public class PlanService {
     @Autowired
     private PlanRepository planRepository;
 
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize = 500;
+
     public PlanResponse createPlan(PlanRequest request) {
         Plan plan = new Plan();
         plan.setName(request.getName());
@@ -32,18 +39,24 @@ public class PlanService {
         return convertToPlanResponse(savedPlan);
     }
 
-    public List<PlanResponse> getAllPlans() {
-        return planRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public CursorPage<PlanResponse> getAllPlans(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<PlanResponse> rows = planRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1)).stream()
                 .map(this::convertToPlanResponse)
                 .collect(Collectors.toList());
+        return CursorPage.of(rows, limit, p -> new KeysetCursor(p.getCreatedAt(), p.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<PlanResponse> getActivePlans() {
         return planRepository.findByActiveTrueOrderByPriceAsc().stream()
                 .map(this::convertToPlanResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public PlanResponse getPlanById(Long id) {
         Plan plan = planRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plan not found with id: " + id));
@@ -0,0 +1,75 @@
+package com.skylink.service;
+
+import com.skylink.entity.User;
+import com.skylink.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size- and TTL-bounded cache of users loaded by {@link UserService#loadUserByUsername(String)},
+ * keyed by email. Writers invalidate both immediately and after commit so that a concurrent
+ * reader cannot re-cache the pre-commit row.
+ */
+@Component
+public class PrincipalCache implements StatsProvider {
+
+    private final ExpiringCache<String, User> cache;
+    private final long ttlMillis;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAccumulator maxLoadNanos = new LongAccumulator(Long::max, 0);
+
+    public PrincipalCache(@Value("${user.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${user.principal-cache.ttl-ms:60000}") long ttlMillis) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+    }
+
+    public User get(String email) {
+        return cache.get(email);
+    }
+
+    public void put(String email, User user) {
+        cache.put(email, user, System.currentTimeMillis() + ttlMillis);
+    }
+
+    public void recordLoad(long elapsedNanos) {
+        loads.increment();
+        loadNanos.add(elapsedNanos);
+        maxLoadNanos.accumulate(elapsedNanos);
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = cache.stats("user.principalCache");
+        long loadCount = loads.sum();
+        stats.put("user.principalCache.loads", loadCount);
+        stats.put("user.principalCache.avgLoadMicros",
+                loadCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(loadNanos.sum() / loadCount));
+        stats.put("user.principalCache.maxLoadMicros", TimeUnit.NANOSECONDS.toMicros(maxLoadNanos.get()));
+        return stats;
+    }
+}
@@ -0,0 +1,12 @@
+package com.skylink.service;
+
+import java.util.Map;
+
+/**
+ * A component whose counters are reported by {@link AnalyticsService#getPerformanceAnalytics()}.
+ * Keys are dotted and prefixed with the component's name, so they stay unique when merged.
+ */
+public interface StatsProvider {
+
+    Map<String, Long> getStats();
+}
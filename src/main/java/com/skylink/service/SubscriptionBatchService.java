@@ -0,0 +1,169 @@
+package com.skylink.service;
+
+import com.skylink.dao.PlanRepository;
+import com.skylink.dao.SubscriptionRepository;
+import com.skylink.dto.SubscriptionBatchResponse;
+import com.skylink.dto.SubscriptionBatchResponse.Outcome;
+import com.skylink.entity.Plan;
+import com.skylink.entity.Subscription;
+import com.skylink.entity.SubscriptionStatus;
+import com.skylink.exception.InvalidRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renews or cancels many subscriptions per call. Ids are handled in chunks, each in its own
+ * short transaction: the chunk's rows are locked and classified with one query, then changed
+ * with one bulk update (one per plan duration for renewals) instead of a load and save per id.
+ */
+@Service
+public class SubscriptionBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionBatchService.class);
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private SubscriptionExpiryIndex expiryIndex;
+
+    @Autowired
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${subscription.batch.max-ids:10000}")
+    private int maxIds = 10000;
+
+    @Value("${subscription.batch.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public SubscriptionBatchResponse renewSubscriptions(List<Long> ids) {
+        return process("renew", ids, this::renewChunk);
+    }
+
+    public SubscriptionBatchResponse cancelSubscriptions(List<Long> ids) {
+        return process("cancel", ids, this::cancelChunk);
+    }
+
+    private SubscriptionBatchResponse process(String operation, List<Long> ids, Function<List<Long>, Map<Long, Outcome>> chunkAction) {
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Subscription IDs must not be null");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > maxIds) {
+            throw new InvalidRequestException("At most " + maxIds + " subscription IDs can be processed per batch");
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        distinctIds.forEach(id -> outcomes.put(id, Outcome.NOT_FOUND));
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            outcomes.putAll(runChunk(chunk, chunkAction));
+        }
+
+        SubscriptionBatchResponse response = new SubscriptionBatchResponse(outcomes);
+        logger.info("Batch {} of {} subscriptions: {} succeeded ({} ms)",
+                operation, response.getRequested(), response.getSucceeded(), System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private Map<Long, Outcome> runChunk(List<Long> chunk, Function<List<Long>, Map<Long, Outcome>> chunkAction) {
+        try {
+            return transactionTemplate.execute(status -> chunkAction.apply(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // A user in this chunk got an active subscription after the check; classify again
+            logger.warn("Retrying batch chunk of {} subscriptions after a concurrent activation", chunk.size());
+            return transactionTemplate.execute(status -> chunkAction.apply(chunk));
+        }
+    }
+
+    private Map<Long, Outcome> renewChunk(List<Long> ids) {
+        List<Subscription> rows = subscriptionRepository.lockAllByIdIn(ids);
+        Map<Long, Outcome> outcomes = new HashMap<>();
+        if (rows.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Long> userIds = rows.stream().map(s -> s.getUser().getId()).collect(Collectors.toSet());
+        Map<Long, Long> activeByUser = new HashMap<>();
+        subscriptionRepository.findActiveHolders(userIds).forEach(h -> activeByUser.put(h.getUserId(), h.getId()));
+
+        Set<Long> planIds = rows.stream().map(s -> s.getPlan().getId()).collect(Collectors.toSet());
+        Map<Long, Integer> durationByPlan = planRepository.findAllById(planIds).stream()
+                .collect(Collectors.toMap(Plan::getId, Plan::getDurationInDays));
+
+        // One renewal per user: a user's other active subscription, or an earlier id in the batch, wins
+        Map<Integer, Map<Long, Long>> userByIdPerDuration = new HashMap<>();
+        for (Subscription subscription : rows) {
+            Long userId = subscription.getUser().getId();
+            Long holder = activeByUser.putIfAbsent(userId, subscription.getId());
+            if (holder != null && !holder.equals(subscription.getId())) {
+                outcomes.put(subscription.getId(), Outcome.CONFLICT);
+                continue;
+            }
+            userByIdPerDuration
+                    .computeIfAbsent(durationByPlan.get(subscription.getPlan().getId()), d -> new LinkedHashMap<>())
+                    .put(subscription.getId(), userId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        userByIdPerDuration.forEach((durationInDays, userById) -> {
+            LocalDateTime endDate = now.plusDays(durationInDays);
+            subscriptionRepository.renewAll(userById.keySet(), now, endDate);
+            userById.forEach((id, userId) -> {
+                expiryIndex.scheduleAfterCommit(id, endDate);
+                activeSubscriptionCache.invalidate(userId);
+                outcomes.put(id, Outcome.RENEWED);
+            });
+        });
+        return outcomes;
+    }
+
+    private Map<Long, Outcome> cancelChunk(List<Long> ids) {
+        List<Subscription> rows = subscriptionRepository.lockAllByIdIn(ids);
+        Map<Long, Outcome> outcomes = new HashMap<>();
+
+        Map<Long, Long> userById = new LinkedHashMap<>();
+        for (Subscription subscription : rows) {
+            if (subscription.getStatus() == SubscriptionStatus.CANCELLED) {
+                outcomes.put(subscription.getId(), Outcome.ALREADY_CANCELLED);
+            } else {
+                userById.put(subscription.getId(), subscription.getUser().getId());
+            }
+        }
+        if (userById.isEmpty()) {
+            return outcomes;
+        }
+
+        subscriptionRepository.cancelAll(userById.keySet(), LocalDateTime.now());
+        userById.forEach((id, userId) -> {
+            expiryIndex.cancelAfterCommit(id);
+            activeSubscriptionCache.invalidate(userId);
+            outcomes.put(id, Outcome.CANCELLED);
+        });
+        return outcomes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.skylink.service;
+
+import com.skylink.config.SchedulingConfig;
+import com.skylink.dao.SubscriptionRepository;
+import com.skylink.util.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory index of upcoming subscription end dates. Subscriptions are expired within a tick
+ * of their end date instead of at the next batch run; the batch job in
+ * {@link SubscriptionService#processExpiredSubscriptions()} remains the backstop for anything
+ * the index misses (restarts, other nodes, deadlines beyond the horizon).
+ */
+@Component
+public class SubscriptionExpiryIndex implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionExpiryIndex.class);
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Value("${subscription.expiry-index.flush-chunk-size:500}")
+    private int flushChunkSize = 500;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    // Only end dates this close are kept in memory; the periodic reload brings later ones in
+    private final long horizonMillis;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder beyondHorizon = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    // 64 slots per level over 4 levels; with one-second ticks the wheel itself spans about 194 days
+    public SubscriptionExpiryIndex(@Value("${subscription.expiry-index.tick-ms:1000}") long tickMillis,
+                                   @Value("${subscription.expiry-index.horizon-ms:172800000}") long horizonMillis) {
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, 6, 4, System.currentTimeMillis());
+        this.horizonMillis = Math.min(horizonMillis, wheel.getHorizonMillis());
+    }
+
+    public void schedule(Long subscriptionId, LocalDateTime endDate) {
+        if (subscriptionId == null || endDate == null) {
+            return;
+        }
+        long deadline = toEpochMillis(endDate);
+        if (deadline - System.currentTimeMillis() > horizonMillis) {
+            // A renewal may push a subscription out of range; drop its old deadline
+            wheel.cancel(subscriptionId);
+            beyondHorizon.increment();
+            return;
+        }
+        wheel.schedule(subscriptionId, deadline);
+        scheduled.increment();
+    }
+
+    public void cancel(Long subscriptionId) {
+        if (subscriptionId != null) {
+            wheel.cancel(subscriptionId);
+        }
+    }
+
+    /**
+     * Schedules once the surrounding transaction commits, so a rolled-back renewal never
+     * leaves a deadline the database does not have.
+     */
+    public void scheduleAfterCommit(Long subscriptionId, LocalDateTime endDate) {
+        afterCommit(() -> schedule(subscriptionId, endDate));
+    }
+
+    public void cancelAfterCommit(Long subscriptionId) {
+        afterCommit(() -> cancel(subscriptionId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Loads ACTIVE subscriptions ending within the horizon. Runs at startup and again
+     * periodically so that subscriptions move into range as the horizon slides forward.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${subscription.expiry-index.reload-interval-ms:86400000}",
+               initialDelayString = "${subscription.expiry-index.reload-interval-ms:86400000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        LocalDateTime until = LocalDateTime.now().plusNanos(horizonMillis * 1_000_000L);
+        List<SubscriptionRepository.ExpiryTime> expiryTimes = subscriptionRepository.findActiveExpiryTimesBefore(until);
+        for (SubscriptionRepository.ExpiryTime expiryTime : expiryTimes) {
+            schedule(expiryTime.getId(), expiryTime.getEndDate());
+        }
+        logger.info("Loaded {} subscription end dates into the expiry index in {} ms",
+                expiryTimes.size(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedRateString = "${subscription.expiry-index.tick-ms:1000}", scheduler = SchedulingConfig.TIMING_WHEEL_SCHEDULER)
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        fired.add(due.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < due.size(); from += flushChunkSize) {
+            List<Long> chunk = due.subList(from, Math.min(from + flushChunkSize, due.size()));
+            try {
+                // Guarded by status and end date, so renewed or cancelled rows are left alone
+                expired.add(subscriptionRepository.expireSubscriptions(chunk, now));
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                logger.warn("Failed to expire {} subscriptions from the expiry index, leaving them to the batch job",
+                        chunk.size(), e);
+            }
+        }
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("subscription.expiryIndex.size", (long) wheel.size());
+        stats.put("subscription.expiryIndex.scheduled", scheduled.sum());
+        stats.put("subscription.expiryIndex.beyondHorizon", beyondHorizon.sum());
+        stats.put("subscription.expiryIndex.fired", fired.sum());
+        stats.put("subscription.expiryIndex.expired", expired.sum());
+        stats.put("subscription.expiryIndex.flushFailures", flushFailures.sum());
+        return stats;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,24 @@
+package com.skylink.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the subscription expiry job periodically. Several nodes may run it at the same time;
+ * the bulk update only flips rows that are still ACTIVE, so each subscription expires once.
+ */
+@Component
+@ConditionalOnProperty(name = "subscription.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class SubscriptionExpiryScheduler {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Scheduled(fixedDelayString = "${subscription.expiry.interval-ms:300000}",
+               initialDelayString = "${subscription.expiry.initial-delay-ms:60000}")
+    public void expireSubscriptions() {
+        subscriptionService.processExpiredSubscriptions();
+    }
+}
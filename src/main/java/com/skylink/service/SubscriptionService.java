@@ -3,6 +3,7 @@ package com.skylink.service;
 import com.skylink.dao.PlanRepository;
 import com.skylink.dao.SubscriptionRepository;
 import com.skylink.dao.UserRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.SubscriptionRequest;
 import com.skylink.dto.SubscriptionResponse;
 import com.skylink.entity.Plan;
@@ -10,14 +11,22 @@ import com.skylink.entity.Subscription;
 import com.skylink.entity.SubscriptionStatus;
 import com.skylink.entity.User;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -32,6 +41,20 @@ public class SubscriptionService {
     @Autowired
     private PlanRepository planRepository;
 
+    @Autowired
+    private SubscriptionExpiryIndex expiryIndex;
+
+    @Autowired
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    @Value("${subscription.expiry.chunk-size:1000}")
+    private int expiryChunkSize = 1000;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionService.class);
+
     public SubscriptionResponse createSubscription(SubscriptionRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
@@ -39,7 +62,7 @@ public class SubscriptionService {
         Plan plan = planRepository.findById(request.getPlanId())
                 .orElseThrow(() -> new ResourceNotFoundException("Plan not found with id: " + request.getPlanId()));
 
-        // Check if user already has an active subscription
+        // Fast path only; the unique active_user_id column is what rules out concurrent duplicates
         Optional<Subscription> existingSubscription = subscriptionRepository.findActiveSubscriptionByUserId(user.getId());
         if (existingSubscription.isPresent()) {
             throw new IllegalStateException("User already has an active subscription");
@@ -55,37 +78,43 @@ public class SubscriptionService {
         subscription.setEndDate(endDate);
         subscription.setStatus(SubscriptionStatus.ACTIVE);
 
-        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        Subscription savedSubscription;
+        try {
+            savedSubscription = subscriptionRepository.save(subscription);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("User already has an active subscription");
+        }
+        expiryIndex.scheduleAfterCommit(savedSubscription.getId(), endDate);
+        activeSubscriptionCache.invalidate(user.getId());
         return convertToSubscriptionResponse(savedSubscription);
     }
 
+    @Transactional(readOnly = true)
     public List<SubscriptionResponse> getUserSubscriptions(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        return subscriptionRepository.findByUserOrderByCreatedAtDesc(user).stream()
-                .map(this::convertToSubscriptionResponse)
-                .collect(Collectors.toList());
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return subscriptionRepository.findResponsesByUserId(userId);
     }
 
+    // SUPPORTS: a cache hit must not open a transaction or take a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public SubscriptionResponse getActiveSubscription(Long userId) {
-        Optional<Subscription> subscription = subscriptionRepository.findActiveSubscriptionByUserId(userId);
-        if (subscription.isPresent()) {
-            return convertToSubscriptionResponse(subscription.get());
-        }
-        throw new ResourceNotFoundException("No active subscription found for user id: " + userId);
+        return activeSubscriptionCache.get(userId, subscriptionRepository::findActiveResponseByUserId)
+                .orElseThrow(() -> new ResourceNotFoundException("No active subscription found for user id: " + userId));
     }
 
-    public List<SubscriptionResponse> getAllSubscriptions() {
-        return subscriptionRepository.findAll().stream()
-                .map(this::convertToSubscriptionResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<SubscriptionResponse> getAllSubscriptions(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<SubscriptionResponse> rows = subscriptionRepository.findResponsesAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, s -> new KeysetCursor(s.getCreatedAt(), s.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<SubscriptionResponse> getSubscriptionsByStatus(SubscriptionStatus status) {
-        return subscriptionRepository.findByStatus(status).stream()
-                .map(this::convertToSubscriptionResponse)
-                .collect(Collectors.toList());
+        return subscriptionRepository.findResponsesByStatus(status);
     }
 
     public SubscriptionResponse updateSubscriptionStatus(Long id, SubscriptionStatus status) {
@@ -94,6 +123,12 @@ public class SubscriptionService {
 
         subscription.setStatus(status);
         Subscription updatedSubscription = subscriptionRepository.save(subscription);
+        if (status == SubscriptionStatus.ACTIVE) {
+            expiryIndex.scheduleAfterCommit(id, updatedSubscription.getEndDate());
+        } else {
+            expiryIndex.cancelAfterCommit(id);
+        }
+        activeSubscriptionCache.invalidate(subscription.getUser().getId());
         return convertToSubscriptionResponse(updatedSubscription);
     }
 
@@ -103,6 +138,8 @@ public class SubscriptionService {
 
         subscription.setStatus(SubscriptionStatus.CANCELLED);
         subscriptionRepository.save(subscription);
+        expiryIndex.cancelAfterCommit(id);
+        activeSubscriptionCache.invalidate(subscription.getUser().getId());
     }
 
     public void renewSubscription(Long id) {
@@ -117,20 +154,99 @@ public class SubscriptionService {
         subscription.setStatus(SubscriptionStatus.ACTIVE);
 
         subscriptionRepository.save(subscription);
+        expiryIndex.scheduleAfterCommit(id, newEndDate);
+        activeSubscriptionCache.invalidate(subscription.getUser().getId());
+    }
+
+    /**
+     * Marks overdue ACTIVE subscriptions as EXPIRED in chunks of ids. Each chunk is a single
+     * bulk update in its own short transaction, so memory and lock time stay bounded
+     * however many subscriptions expire at once.
+     *
+     * @return number of subscriptions expired by this run
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processExpiredSubscriptions() {
+        LocalDateTime now = LocalDateTime.now();
+        long runStart = System.currentTimeMillis();
+        int total = 0;
+        int chunks = 0;
+        Long lastId = 0L;
+
+        while (true) {
+            long chunkStart = System.currentTimeMillis();
+            List<Long> ids = subscriptionRepository.findExpiredSubscriptionIds(now, lastId, PageRequest.of(0, expiryChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int updated = subscriptionRepository.expireSubscriptions(ids, now);
+            total += updated;
+            chunks++;
+            lastId = ids.get(ids.size() - 1);
+            logger.info("Expired {} of {} subscriptions in chunk ending at id {} ({} ms)",
+                    updated, ids.size(), lastId, System.currentTimeMillis() - chunkStart);
+
+            if (ids.size() < expiryChunkSize) {
+                break;
+            }
+        }
+
+        if (chunks > 0) {
+            logger.info("Subscription expiry run expired {} subscriptions in {} chunks ({} ms)",
+                    total, chunks, System.currentTimeMillis() - runStart);
+        }
+        return total;
     }
 
-    public void processExpiredSubscriptions() {
-        List<Subscription> expiredSubscriptions = subscriptionRepository.findExpiredSubscriptions(LocalDateTime.now());
-        for (Subscription subscription : expiredSubscriptions) {
-            subscription.setStatus(SubscriptionStatus.EXPIRED);
-            subscriptionRepository.save(subscription);
+    /**
+     * Sets active_user_id on ACTIVE subscriptions created before the column existed, so the
+     * unique constraint covers them too. Users with more than one ACTIVE subscription are left
+     * alone and logged; they need a manual cleanup before the constraint can hold for them.
+     *
+     * @return number of subscriptions backfilled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfillActiveUserIds() {
+        int total = 0;
+        while (true) {
+            List<Long> ids = subscriptionRepository.findUnclaimedActiveIds(PageRequest.of(0, expiryChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int claimed;
+            try {
+                claimed = subscriptionRepository.claimActiveUser(ids);
+            } catch (DataIntegrityViolationException e) {
+                // A user in this chunk got a new active subscription meanwhile; claim one at a time
+                claimed = 0;
+                for (Long id : ids) {
+                    try {
+                        claimed += subscriptionRepository.claimActiveUser(List.of(id));
+                    } catch (DataIntegrityViolationException ignored) {
+                        logger.warn("Subscription {} is active next to another active subscription of its user", id);
+                    }
+                }
+            }
+            total += claimed;
+            if (claimed == 0 || ids.size() < expiryChunkSize) {
+                break;
+            }
+        }
+        long remaining = subscriptionRepository.countUnclaimedActive();
+        if (total > 0 || remaining > 0) {
+            logger.info("Backfilled active_user_id on {} subscriptions; {} active subscriptions of users with several left unclaimed",
+                    total, remaining);
         }
+        return total;
     }
 
+    @Transactional(readOnly = true)
     public long getTotalActiveSubscriptions() {
         return subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalExpiredSubscriptions() {
         return subscriptionRepository.countByStatus(SubscriptionStatus.EXPIRED);
     }
@@ -0,0 +1,199 @@
+package com.skylink.service;
+
+import com.skylink.dao.RevokedTokenRepository;
+import com.skylink.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deny-list of revoked token ids. The persisted list is mirrored into a Bloom filter so
+ * that the check for a token that was never revoked is a memory lookup; only filter hits
+ * are confirmed against the database. Revocations made on other nodes are pulled into the
+ * filter every {@code jwt.revocation.sync-interval-ms}, so a revoked token is accepted
+ * elsewhere for at most that long. The filter is rebuilt periodically, which also drops ids
+ * of tokens that have expired since.
+ */
+@Service
+public class TokenRevocationService implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries = 100000;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    // Covers clock skew between nodes and revocations committed after the previous sync read
+    @Value("${jwt.revocation.sync-overlap-ms:60000}")
+    private long syncOverlapMillis = 60000;
+
+    // Serializes rebuilds only; queries never run under filterLock
+    private final Object rebuildLock = new Object();
+    private final Object filterLock = new Object();
+
+    // Null until the first rebuild; every check goes to the database until then
+    private volatile BloomFilter filter;
+    // Revocations at or after this time may not be in the filter yet
+    private LocalDateTime syncedUntil;
+    // Ids added while a rebuild reads the table, replayed into the rebuilt filter before the swap
+    private List<String> addedDuringRebuild;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder revocations = new LongAdder();
+    private final AtomicLong filterEntries = new AtomicLong();
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        checks.increment();
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            filterNegatives.increment();
+            return false;
+        }
+        databaseLookups.increment();
+        return revokedTokenRepository.existsByJti(jti);
+    }
+
+    /**
+     * Revokes the token. The unique jti makes this the gate for single-use tokens: of several
+     * concurrent calls, on any node, exactly one returns {@code true}.
+     *
+     * @return {@code false} if the token was already revoked or has expired
+     */
+    public boolean revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            return false;
+        }
+        boolean revoked = false;
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            try {
+                revoked = revokedTokenRepository.insert(jti, toLocalDateTime(expiresAt), LocalDateTime.now()) == 1;
+                if (revoked) {
+                    revocations.increment();
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently by another request
+                logger.debug("Token {} already revoked", jti);
+            }
+        }
+        // After the row is stored, so a concurrent rebuild either reads it or replays this add
+        if (addToFilter(List.of(jti))) {
+            filterEntries.incrementAndGet();
+        }
+        return revoked;
+    }
+
+    /**
+     * Adds tokens revoked since the last sync, on this node or any other, to the filter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        LocalDateTime since;
+        synchronized (filterLock) {
+            if (filter == null) {
+                return;
+            }
+            since = syncedUntil;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> jtis = revokedTokenRepository.findUnexpiredJtisRevokedSince(
+                since.minusNanos(syncOverlapMillis * 1_000_000L), now);
+        synchronized (filterLock) {
+            addToFilter(jtis);
+            if (syncedUntil.isBefore(now)) {
+                syncedUntil = now;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    @Transactional
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (filterLock) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+            try {
+                int purged = revokedTokenRepository.deleteExpired(now);
+                List<String> jtis = revokedTokenRepository.findUnexpiredJtis(now);
+
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, jtis.size() * 2L), falsePositiveRate);
+                jtis.forEach(rebuilt::add);
+                synchronized (filterLock) {
+                    // Duplicates of ids the query already returned are harmless
+                    addedDuringRebuild.forEach(rebuilt::add);
+                    filter = rebuilt;
+                    syncedUntil = now;
+                    filterEntries.set(jtis.size() + addedDuringRebuild.size());
+                }
+                logger.info("Rebuilt token revocation filter with {} entries ({} expired purged) in {} ms",
+                        jtis.size(), purged, System.currentTimeMillis() - start);
+            } finally {
+                synchronized (filterLock) {
+                    addedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        BloomFilter current = filter;
+        stats.put("jwt.revocation.filterEntries", filterEntries.get());
+        stats.put("jwt.revocation.filterBits", current != null ? current.getBitCount() : 0L);
+        stats.put("jwt.revocation.checks", checks.sum());
+        stats.put("jwt.revocation.filterNegatives", filterNegatives.sum());
+        stats.put("jwt.revocation.databaseLookups", databaseLookups.sum());
+        stats.put("jwt.revocation.revoked", revocations.sum());
+        return stats;
+    }
+
+    /**
+     * @return whether there was a filter to add to
+     */
+    private boolean addToFilter(List<String> jtis) {
+        synchronized (filterLock) {
+            BloomFilter current = filter;
+            if (current != null) {
+                jtis.forEach(current::add);
+            }
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.addAll(jtis);
+            }
+            return current != null;
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,67 @@
+package com.skylink.service;
+
+import com.skylink.dao.UserRepository;
+import com.skylink.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Answers "is this token still valid for this user" without a database query per request.
+ * The user's token version and active flag are cached for a short TTL; changes made on
+ * this node invalidate the entry immediately, changes on other nodes are seen after the TTL.
+ */
+@Service
+public class TokenVersionService implements StatsProvider {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.token-state.ttl-ms:30000}")
+    private long ttlMillis = 30000;
+
+    private final ExpiringCache<Long, TokenState> cache;
+
+    public TokenVersionService(@Value("${jwt.token-state.max-size:100000}") int maxSize) {
+        this.cache = new ExpiringCache<>(maxSize);
+    }
+
+    public boolean isTokenCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        TokenState state = cache.get(userId);
+        if (state == null) {
+            state = userRepository.findTokenStateById(userId)
+                    .map(s -> new TokenState(s.getTokenVersion() != null ? s.getTokenVersion() : 0,
+                            Boolean.TRUE.equals(s.getActive())))
+                    .orElse(TokenState.MISSING);
+            cache.put(userId, state, System.currentTimeMillis() + ttlMillis);
+        }
+        int version = tokenVersion != null ? tokenVersion : 0;
+        return state.active && state.version == version;
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    @Override
+    public Map<String, Long> getStats() {
+        return cache.stats("jwt.tokenStateCache");
+    }
+
+    private static final class TokenState {
+        private static final TokenState MISSING = new TokenState(-1, false);
+
+        private final int version;
+        private final boolean active;
+
+        private TokenState(int version, boolean active) {
+            this.version = version;
+            this.active = active;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.skylink.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,37 +17,78 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.skylink.dao.UserRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.LoginRequest;
+import com.skylink.dto.LoginResponse;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
 import com.skylink.entity.User;
+import com.skylink.exception.InvalidTokenException;
 import com.skylink.exception.ResourceNotFoundException;
 import com.skylink.exception.UserAlreadyExistsException;
+import com.skylink.util.KeysetCursor;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize = 500;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        @Lazy AuthenticationManager authenticationManager,
-                       JwtService jwtService) {
+                       JwtService jwtService,
+                       TokenVersionService tokenVersionService,
+                       PrincipalCache principalCache,
+                       TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.tokenVersionService = tokenVersionService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        User cachedUser = principalCache.get(email);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+
+        long start = System.nanoTime();
+        User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        principalCache.recordLoad(System.nanoTime() - start);
+
+        principalCache.put(email, user);
+        return user;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+
+        // Same password under a new hash, so issued tokens stay valid
+        user.setPassword(newEncodedPassword);
+        User updatedUser = userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        return updatedUser;
     }
 
     public UserResponse signup(SignupRequest request) {
@@ -77,28 +120,99 @@ public class UserService implements UserDetailsService {
         return jwtService.generateToken(user);
     }
 
+    /**
+     * Authenticates and builds the login response from the authenticated principal,
+     * so the user is read from the database only once.
+     */
+    public LoginResponse authenticate(LoginRequest request) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+        );
+
+        User user = (User) authentication.getPrincipal();
+        return issueTokens(user);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. The presented
+     * refresh token is revoked, so each one can be used only once.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+
+        if (!jwtService.isRefreshToken(claims) || tokenRevocationService.isRevoked(jwtService.extractTokenId(claims))) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+
+        User user = userRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        // Deactivation and credential changes bump the version and end every session
+        int currentVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        if (!user.isEnabled() || currentVersion != jwtService.extractTokenVersion(claims)) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+
+        // Loses to a concurrent refresh with the same token, on this node or another
+        if (!tokenRevocationService.revoke(jwtService.extractTokenId(claims), claims.getExpiration())) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        return issueTokens(user);
+    }
+
+    /**
+     * Revokes the given tokens; tokens that are already invalid are ignored.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        revokeToken(accessToken);
+        revokeToken(refreshToken);
+    }
+
+    private void revokeToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            Claims claims = jwtService.parseClaims(token);
+            tokenRevocationService.revoke(jwtService.extractTokenId(claims), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Nothing to revoke
+        }
+    }
+
+    private LoginResponse issueTokens(User user) {
+        return new LoginResponse(jwtService.generateToken(user), jwtService.generateRefreshToken(user),
+                convertToUserResponse(user));
+    }
+
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return convertToUserResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        return userRepository.findResponseByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return convertToUserResponse(user);
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToUserResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getAllUsers(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = CursorPage.clampSize(size, maxPageSize);
+        List<UserResponse> rows = userRepository.findResponsesAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, u -> new KeysetCursor(u.getCreatedAt(), u.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<UserResponse> getUsersByRole(Role role) {
-        return userRepository.findByRole(role).stream()
-                .map(this::convertToUserResponse)
-                .collect(Collectors.toList());
+        return userRepository.findResponsesByRole(role);
     }
 
     public UserResponse updateUser(Long id, SignupRequest request) {
@@ -114,15 +228,27 @@ public class UserService implements UserDetailsService {
             throw new UserAlreadyExistsException("User already exists with mobile number: " + request.getMobileNumber());
         }
 
+        String previousEmail = user.getEmail();
+        boolean credentialsChanged = !previousEmail.equals(request.getEmail());
+
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setMobileNumber(request.getMobileNumber());
 
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            credentialsChanged = true;
+        }
+
+        // Tokens issued for the old email or password must stop working
+        if (credentialsChanged) {
+            revokeIssuedTokens(user);
         }
 
         User updatedUser = userRepository.save(user);
+        tokenVersionService.invalidate(id);
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(request.getEmail());
         return convertToUserResponse(updatedUser);
     }
 
@@ -130,7 +256,10 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setActive(false);
+        revokeIssuedTokens(user);
         userRepository.save(user);
+        tokenVersionService.invalidate(id);
+        principalCache.invalidate(user.getEmail());
     }
 
     public void activateUser(Long id) {
@@ -138,16 +267,25 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setActive(true);
         userRepository.save(user);
+        tokenVersionService.invalidate(id);
+        principalCache.invalidate(user.getEmail());
     }
 
+    @Transactional(readOnly = true)
     public long getTotalCustomers() {
         return userRepository.countByRole(Role.CUSTOMER);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalAdmins() {
         return userRepository.countByRole(Role.ADMIN);
     }
 
+    private void revokeIssuedTokens(User user) {
+        int version = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(version + 1);
+    }
+
     UserResponse convertToUserResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
@@ -0,0 +1,171 @@
+package com.skylink.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small size-bounded in-memory cache whose entries carry their own expiry time. Reads are
+ * lock-free and only set a "recently read" bit on the entry. When the cache is full, entries
+ * are taken from an insertion-order queue: an expired one is dropped, a recently read one has
+ * its bit cleared and goes to the back, and the first one that is neither is evicted (the CLOCK
+ * approximation of LRU). Each entry is passed over at most once per eviction, so eviction is
+ * amortized constant time. Only one thread evicts at a time; the others carry on, so the size
+ * may overshoot the bound briefly.
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    // Every live entry plus entries replaced or removed since they were queued
+    private final Queue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        return get(key, System.currentTimeMillis());
+    }
+
+    public V get(K key, long nowMillis) {
+        if (maxSize <= 0) {
+            misses.increment();
+            return null;
+        }
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= nowMillis) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        // Skip the volatile write when the bit is already set, so hot keys stay read-only
+        if (!entry.recentlyRead) {
+            entry.recentlyRead = true;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        Entry<K, V> entry = new Entry<>(key, value, expiresAtMillis);
+        entries.put(key, entry);
+        clock.add(entry);
+        int queuedNow = queued.incrementAndGet();
+        if (entries.size() > maxSize || queuedNow > 2 * maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public long getEvictions() { return evictions.sum(); }
+
+    /**
+     * Hit rate in percent over the lifetime of the cache.
+     */
+    public long getHitRatePercent() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (h * 100) / total;
+    }
+
+    public Map<String, Long> stats(String prefix) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put(prefix + ".size", (long) entries.size());
+        stats.put(prefix + ".hits", getHits());
+        stats.put(prefix + ".misses", getMisses());
+        stats.put(prefix + ".hitRatePercent", getHitRatePercent());
+        stats.put(prefix + ".evictions", getEvictions());
+        return stats;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (queued.get() > 2 * maxSize) {
+                // Keys put again or invalidated leave dead queue entries behind; drop them in one pass
+                clock.removeIf(e -> {
+                    boolean dead = entries.get(e.key) != e;
+                    if (dead) {
+                        queued.decrementAndGet();
+                    }
+                    return dead;
+                });
+            }
+            long now = System.currentTimeMillis();
+            // Each entry gets at most one second chance per eviction, which bounds the loop
+            int budget = 2 * queued.get();
+            while (entries.size() > maxSize && budget-- > 0) {
+                Entry<K, V> entry = clock.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entries.get(entry.key) != entry) {
+                    queued.decrementAndGet();
+                } else if (entry.expiresAt <= now) {
+                    entries.remove(entry.key, entry);
+                    queued.decrementAndGet();
+                } else if (entry.recentlyRead) {
+                    entry.recentlyRead = false;
+                    clock.add(entry);
+                } else if (entries.remove(entry.key, entry)) {
+                    queued.decrementAndGet();
+                    evictions.increment();
+                } else {
+                    queued.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        private volatile boolean recentlyRead;
+
+        private Entry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.skylink.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel keyed by K. Each level has {@code 2^bitsPerLevel} slots; level 0
+ * slots span one tick and every level above spans a full rotation of the level below. A key
+ * is placed on the lowest level whose range covers its deadline and cascades down as time
+ * advances, so schedule and cancel are O(1) and a tick only touches the keys that are due
+ * plus the slots being cascaded.
+ * <p>
+ * Deadlines further out than {@link #getHorizonMillis()} are rejected. All methods are
+ * synchronized; the wheel is meant for a single ticking thread plus occasional updates.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int slotMask;
+    private final int levels;
+    private final List<List<Set<K>>> wheel;
+    private final Map<K, Timer> timers = new HashMap<>();
+
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int bitsPerLevel, int levels, long startMillis) {
+        if (tickMillis <= 0 || bitsPerLevel <= 0 || levels <= 0 || (long) bitsPerLevel * levels >= 63) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = bitsPerLevel;
+        this.slotMask = (1 << bitsPerLevel) - 1;
+        this.levels = levels;
+        this.currentTick = startMillis / tickMillis;
+
+        this.wheel = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<Set<K>> slots = new ArrayList<>(slotMask + 1);
+            for (int slot = 0; slot <= slotMask; slot++) {
+                slots.add(new HashSet<>());
+            }
+            wheel.add(slots);
+        }
+    }
+
+    /**
+     * Schedules or reschedules the key. Deadlines already in the past fire on the next tick.
+     *
+     * @return false if the deadline is beyond the horizon and the key was not scheduled
+     */
+    public synchronized boolean schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        if (deadlineTick - currentTick >= (1L << (bitsPerLevel * levels))) {
+            return false;
+        }
+        place(key, deadlineTick);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        wheel.get(timer.level).get(timer.slot).remove(key);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @return keys whose deadline has passed, in deadline order; they are no longer scheduled
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        if (timers.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+            return due;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            Set<K> slot = wheel.get(0).get((int) (currentTick & slotMask));
+            if (!slot.isEmpty()) {
+                for (K key : slot) {
+                    timers.remove(key);
+                    due.add(key);
+                }
+                slot.clear();
+            }
+            if (timers.isEmpty()) {
+                currentTick = targetTick;
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    public long getHorizonMillis() {
+        return tickMillis * ((1L << (bitsPerLevel * levels)) - 1);
+    }
+
+    // When a lower level completes a rotation, the next slot of the level above is redistributed
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (bitsPerLevel * level)) - 1)) != 0) {
+                return;
+            }
+            Set<K> slot = wheel.get(level).get((int) ((currentTick >>> (bitsPerLevel * level)) & slotMask));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<K> keys = new ArrayList<>(slot);
+            slot.clear();
+            for (K key : keys) {
+                place(key, timers.get(key).deadlineTick);
+            }
+        }
+    }
+
+    private void place(K key, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bitsPerLevel * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadlineTick >>> (bitsPerLevel * level)) & slotMask);
+        wheel.get(level).get(slot).add(key);
+        timers.put(key, new Timer(deadlineTick, level, slot));
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Timer {
+        private final long deadlineTick;
+        private final int level;
+        private final int slot;
+
+        private Timer(long deadlineTick, int level, int slot) {
+            this.deadlineTick = deadlineTick;
+            this.level = level;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.skylink.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over short text documents keyed by id, ranked with BM25. Terms
+ * are lower-cased runs of letters and digits; a query term ending in {@code *} matches every
+ * indexed term with that prefix. Any matching term is enough for a hit. Searches share a read
+ * lock and adding or removing a document takes the write lock briefly.
+ */
+public class InvertedIndex {
+
+    static final int MAX_TERM_LENGTH = 64;
+    static final int MAX_PREFIX_EXPANSIONS = 128;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<Hit> RANK_ORDER = Comparator
+            .comparingDouble(Hit::getScore).reversed()
+            .thenComparingLong(Hit::getId);
+
+    // Sorted so a prefix query is a range scan
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // Each document's term frequencies, needed to unindex it when it changes
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indexes the document, replacing whatever was indexed under the id before.
+     */
+    public void put(long id, String... fields) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String field : fields) {
+            for (String token : tokenize(field)) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+        putTerms(id, frequencies);
+    }
+
+    private void putTerms(long id, Map<String, Integer> frequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            int length = 0;
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(id, term.getValue());
+                length += term.getValue();
+            }
+            documents.put(id, frequencies);
+            lengths.put(id, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengths.remove(id);
+    }
+
+    /**
+     * Ranks the documents matching {@code query} and returns {@code limit} hits starting at
+     * {@code offset}, best first, together with the total number of matching documents.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String part : query == null ? new String[0] : query.trim().split("\\s+")) {
+            List<String> tokens = tokenize(part);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            // In "wi-fi*" only the last token is a prefix
+            exact.addAll(tokens.subList(0, tokens.size() - 1));
+            (part.endsWith("*") ? prefixes : exact).add(tokens.get(tokens.size() - 1));
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty() || (exact.isEmpty() && prefixes.isEmpty())) {
+                return new SearchResult(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : exact) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    score(docs, averageLength, scores);
+                }
+            }
+            for (String prefix : prefixes) {
+                NavigableMap<String, Map<Long, Integer>> matches =
+                        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+                int expansions = 0;
+                for (Map<Long, Integer> docs : matches.values()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    score(docs, averageLength, scores);
+                }
+            }
+            return new SearchResult(topHits(scores, offset, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(Map<Long, Integer> docs, double averageLength, Map<Long, Double> scores) {
+        int n = documents.size();
+        double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+        for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+            int tf = doc.getValue();
+            double norm = K1 * (1 - B + B * lengths.get(doc.getKey()) / averageLength);
+            scores.merge(doc.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+        }
+    }
+
+    // Keeps only the best offset + limit scores instead of sorting every match
+    private static List<Hit> topHits(Map<Long, Double> scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (limit <= 0 || offset >= scores.size()) {
+            return List.of();
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(wanted, scores.size()) + 1, RANK_ORDER.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.add(new Hit(entry.getKey(), entry.getValue()));
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANK_ORDER);
+        return ranked.subList(offset, ranked.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every document's term frequencies; postings are rebuilt on {@link #readFrom}.
+     * Only copying the document map holds the read lock; a document's frequencies are never
+     * changed once indexed, so the copy is written out while writers carry on.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        Map<Long, Map<String, Integer>> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = new HashMap<>(documents);
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.writeInt(snapshot.size());
+        for (Map.Entry<Long, Map<String, Integer>> document : snapshot.entrySet()) {
+            out.writeLong(document.getKey());
+            out.writeInt(document.getValue().size());
+            for (Map.Entry<String, Integer> term : document.getValue().entrySet()) {
+                out.writeUTF(term.getKey());
+                out.writeInt(term.getValue());
+            }
+        }
+    }
+
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        int documentCount = in.readInt();
+        for (int i = 0; i < documentCount; i++) {
+            long id = in.readLong();
+            int termCount = in.readInt();
+            Map<String, Integer> frequencies = new HashMap<>(termCount * 2);
+            for (int t = 0; t < termCount; t++) {
+                frequencies.put(in.readUTF(), in.readInt());
+            }
+            index.putTerms(id, frequencies);
+        }
+        return index;
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final double score;
+
+        public Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    public static final class SearchResult {
+        private final List<Hit> hits;
+        private final int totalHits;
+
+        public SearchResult(List<Hit> hits, int totalHits) {
+            this.hits = hits;
+            this.totalHits = totalHits;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.skylink.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds near-duplicate short texts by estimated Jaccard similarity of their character
+ * shingles. Each text is reduced to a MinHash signature of {@code bands * rows} values, and
+ * signatures are bucketed per band, so a lookup only compares against documents that share a
+ * whole band instead of every indexed document. Pairs at the similarity threshold are found
+ * with high probability; candidates are then checked against the threshold on the full
+ * signature. Lookups share a read lock and adding or removing a document takes the write lock
+ * briefly.
+ */
+public class MinHashLsh {
+
+    static final int SHINGLE_LENGTH = 5;
+
+    private final int bands;
+    private final int rows;
+    // Multiply-shift hash functions, one per signature position
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final List<Map<Long, Set<Long>>> buckets;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MinHashLsh(int bands, int rows, long seed) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        Random random = new Random(seed);
+        multipliers = new long[bands * rows];
+        increments = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            increments[i] = random.nextLong();
+        }
+        buckets = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Lower-cases the text and collapses everything but letters and digits to single spaces,
+     * so punctuation and spacing differences do not change the shingles.
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        return normalized.toString().trim();
+    }
+
+    /**
+     * Computes the signature of the fields joined together. A text shorter than one shingle
+     * is a single shingle; blank text gives {@code null}.
+     */
+    public int[] signature(String... fields) {
+        StringBuilder joined = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                joined.append(field).append(' ');
+            }
+        }
+        String text = normalize(joined.toString());
+        if (text.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[bands * rows];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int last = Math.max(0, text.length() - SHINGLE_LENGTH);
+        for (int start = 0; start <= last; start++) {
+            int shingle = text.substring(start, Math.min(text.length(), start + SHINGLE_LENGTH)).hashCode();
+            for (int i = 0; i < signature.length; i++) {
+                int h = (int) ((multipliers[i] * shingle + increments[i]) >>> 33);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    /**
+     * Indexes the signature, replacing whatever was indexed under the id before.
+     */
+    public void put(long id, int[] signature) {
+        checkLength(signature);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            signatures.put(id, signature);
+            for (int b = 0; b < bands; b++) {
+                buckets.get(b).computeIfAbsent(bandKey(signature, b), k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        int[] previous = signatures.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int b = 0; b < bands; b++) {
+            Map<Long, Set<Long>> band = buckets.get(b);
+            long key = bandKey(previous, b);
+            Set<Long> ids = band.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    band.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed documents whose estimated similarity to {@code signature} is at
+     * least {@code threshold}, most similar first.
+     */
+    public List<Match> findSimilar(int[] signature, double threshold) {
+        checkLength(signature);
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (int b = 0; b < bands; b++) {
+                Set<Long> ids = buckets.get(b).get(bandKey(signature, b));
+                if (ids != null) {
+                    candidates.addAll(ids);
+                }
+            }
+            List<Match> matches = new ArrayList<>();
+            for (Long id : candidates) {
+                double similarity = similarity(signature, signatures.get(id));
+                if (similarity >= threshold) {
+                    matches.add(new Match(id, similarity));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed().thenComparingLong(Match::getId));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns some indexed document whose estimated similarity is at least {@code threshold},
+     * or {@code null}. Stops at the first such candidate, so a lookup stays cheap when thousands
+     * of near-identical documents share its buckets.
+     */
+    public Match findFirst(int[] signature, double threshold) {
+        checkLength(signature);
+        lock.readLock().lock();
+        try {
+            Set<Long> checked = new HashSet<>();
+            for (int b = 0; b < bands; b++) {
+                Set<Long> ids = buckets.get(b).get(bandKey(signature, b));
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    if (checked.add(id)) {
+                        double similarity = similarity(signature, signatures.get(id));
+                        if (similarity >= threshold) {
+                            return new Match(id, similarity);
+                        }
+                    }
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = 1125899906842597L;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = 31 * key + signature[i];
+        }
+        return key;
+    }
+
+    private void checkLength(int[] signature) {
+        if (signature == null || signature.length != bands * rows) {
+            throw new IllegalArgumentException("Signature must have " + bands * rows + " values");
+        }
+    }
+
+    public static final class Match {
+        private final long id;
+        private final double similarity;
+
+        public Match(long id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.skylink.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streaming quantile sketch over positive values with a fixed relative error. Values are
+ * counted in logarithmic buckets whose bounds grow by a factor {@code gamma}, so any quantile
+ * is returned within {@code relativeAccuracy} of the true value using memory proportional to
+ * the log of the value range rather than the number of values. Sketches with the same
+ * accuracy merge exactly by adding bucket counts. All methods are synchronized.
+ */
+public class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Records a value; zero and negative values are counted as zero.
+     */
+    public synchronized void add(double value) {
+        if (value > 0) {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), 1L, Long::sum);
+        } else {
+            value = 0;
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value recorded in {@code other} to this sketch.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        QuantileSketch snapshot = other.copy();
+        synchronized (this) {
+            snapshot.buckets.forEach((index, n) -> buckets.merge(index, n, Long::sum));
+            zeroCount += snapshot.zeroCount;
+            count += snapshot.count;
+            sum += snapshot.sum;
+            min = Math.min(min, snapshot.min);
+            max = Math.max(max, snapshot.max);
+        }
+    }
+
+    public synchronized QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.buckets.putAll(buckets);
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Returns the value at quantile {@code q} in [0, 1], or {@code NaN} if the sketch is empty.
+     */
+    public synchronized double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                // Midpoint of (gamma^(i-1), gamma^i], within the relative accuracy of every value in it
+                double estimate = 2 * Math.pow(gamma, bucket.getKey()) / (gamma + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public synchronized double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public synchronized int bucketCount() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.skylink.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token bucket implemented as a generic cell rate algorithm: each key holds a single
+ * "theoretical arrival time" updated by compare-and-set, so checks never take a lock. Keys
+ * live in a ConcurrentHashMap, whose bins are already striped across updaters.
+ */
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalMillis;
+    private final long burstToleranceMillis;
+
+    /**
+     * @param burst          requests allowed back to back on a full bucket
+     * @param permitsPerMinute sustained rate once the burst is used up
+     */
+    public RateLimiter(int burst, int permitsPerMinute) {
+        this.emissionIntervalMillis = Math.max(1, 60_000L / Math.max(1, permitsPerMinute));
+        this.burstToleranceMillis = emissionIntervalMillis * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Takes one permit for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of milliseconds until it would be
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(nowMillis));
+        while (true) {
+            long tat = arrival.get();
+            long base = Math.max(tat, nowMillis);
+            long allowedAt = base - burstToleranceMillis;
+            if (allowedAt > nowMillis) {
+                return allowedAt - nowMillis;
+            }
+            if (arrival.compareAndSet(tat, base + emissionIntervalMillis)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops keys whose bucket has refilled completely; they behave the same as absent keys.
+     */
+    public int cleanup(long nowMillis) {
+        int before = buckets.size();
+        buckets.entrySet().removeIf(e -> e.getValue().get() <= nowMillis);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
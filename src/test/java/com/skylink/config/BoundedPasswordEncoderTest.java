@@ -0,0 +1,111 @@
+package com.skylink.config;
+
+import com.skylink.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testDelegatesEncodeAndMatches() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(), 2, 10);
+
+        assertEquals("{plain}secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "{plain}secret"));
+        assertFalse(encoder.matches("other", "{plain}secret"));
+        assertEquals(3L, encoder.getStats().get("password.hashing.count"));
+    }
+
+    @Test
+    void testRejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("c"));
+        assertEquals(1L, encoder.getStats().get("password.hashing.rejected"));
+
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDelegateExceptionsArePropagated() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+    }
+
+    private void waitForQueueDepth(long depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (encoder.getStats().get("password.hashing.queueDepth") < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Task was never queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (rawPassword == null) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.skylink.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "192.168.1.5", "::1"));
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    void testUntrustedPeerCannotSpoofForwardedFor() {
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "1.2.3.4")));
+        assertEquals("192.168.1.6", resolver.resolve(request("192.168.1.6", "1.2.3.4")));
+    }
+
+    @Test
+    void testSkipsTrustedHopsFromTheRight() {
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.1", "203.0.113.7")));
+        // The client prepended a fake address; the first untrusted hop from the right wins
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.1", "1.2.3.4, 203.0.113.7, 192.168.1.5")));
+        assertEquals("2001:db8::1", resolver.resolve(request("::1", "2001:db8::1")));
+    }
+
+    @Test
+    void testFallsBackToNearestTrustedHop() {
+        assertEquals("10.0.0.1", resolver.resolve(request("10.0.0.1", null)));
+        assertEquals("10.0.0.9", resolver.resolve(request("10.0.0.1", "10.0.0.9")));
+        assertEquals("192.168.1.5", resolver.resolve(request("10.0.0.1", "evil.example.com, 192.168.1.5")));
+    }
+
+    @Test
+    void testInvalidTrustedProxy() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("proxy.internal")));
+    }
+}
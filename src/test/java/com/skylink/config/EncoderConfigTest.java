@@ -0,0 +1,41 @@
+package com.skylink.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncoderConfigTest {
+
+    private final PasswordEncoder encoder = EncoderConfig.createPasswordEncoder(5);
+
+    @Test
+    void testNewHashesArePrefixedAndMatch() {
+        String hash = encoder.encode("password");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void testLegacyUnprefixedHashMatchesAndIsUpgraded() {
+        String legacyHash = new BCryptPasswordEncoder(5).encode("password");
+
+        assertTrue(encoder.matches("password", legacyHash));
+        assertFalse(encoder.matches("wrong", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void testHashUnderDifferentCostIsRehashedBothWays() {
+        String lowerCost = EncoderConfig.createPasswordEncoder(4).encode("password");
+        String higherCost = EncoderConfig.createPasswordEncoder(6).encode("password");
+
+        assertTrue(encoder.matches("password", lowerCost));
+        assertTrue(encoder.upgradeEncoding(lowerCost));
+        assertTrue(encoder.matches("password", higherCost));
+        assertTrue(encoder.upgradeEncoding(higherCost));
+    }
+}
@@ -0,0 +1,129 @@
+package com.skylink.config;
+
+import com.skylink.service.JwtService;
+import com.skylink.service.TokenRevocationService;
+import com.skylink.service.TokenVersionService;
+import com.skylink.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtRequestFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private JwtRequestFilter jwtRequestFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Test
+    void testPublicRoutesAreSkipped() {
+        assertTrue(jwtRequestFilter.shouldNotFilter(request("GET", "/api/plans/active")));
+        assertTrue(jwtRequestFilter.shouldNotFilter(request("GET", "/api/faqs/active")));
+        assertTrue(jwtRequestFilter.shouldNotFilter(request("GET", "/api/faqs/category/billing")));
+        assertTrue(jwtRequestFilter.shouldNotFilter(request("POST", "/api/auth/login")));
+    }
+
+    @Test
+    void testProtectedRoutesAreFiltered() {
+        assertFalse(jwtRequestFilter.shouldNotFilter(request("GET", "/api/faqs")));
+        assertFalse(jwtRequestFilter.shouldNotFilter(request("GET", "/api/faqs/5")));
+        assertFalse(jwtRequestFilter.shouldNotFilter(request("GET", "/api/plans")));
+        assertFalse(jwtRequestFilter.shouldNotFilter(request("GET", "/api/users")));
+    }
+
+    @Test
+    void testPublicRequestNeverTouchesJwtService() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/faqs/active");
+        request.addHeader("Authorization", "Bearer some-token");
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verifyNoInteractions(jwtService, userService);
+    }
+
+    @Test
+    void testRequestWithoutBearerHeaderPassesThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtRequestFilter.doFilter(request("GET", "/api/users"), new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verify(jwtService, never()).parseClaims(anyString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testRefreshTokenIsNotAcceptedAsAccessToken() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer refresh-token");
+        Claims claims = Jwts.claims().setSubject("john@example.com");
+        when(jwtService.parseClaims("refresh-token")).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(true);
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verifyNoInteractions(userService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testRevokedTokenIsRejected() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer revoked-token");
+        Claims claims = Jwts.claims().setSubject("john@example.com");
+        claims.setId("jti-1");
+        when(jwtService.parseClaims("revoked-token")).thenReturn(claims);
+        when(jwtService.extractTokenId(claims)).thenReturn("jti-1");
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verifyNoInteractions(userService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -1,6 +1,8 @@
 package com.skylink.controller;
 
 import com.skylink.dto.AnalyticsResponse;
+import com.skylink.dto.ComplaintSlaResponse;
+import com.skylink.entity.Priority;
 import com.skylink.service.AnalyticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -82,4 +85,27 @@ class AnalyticsControllerTest {
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody().containsKey("2025-01"));
     }
+
+    @Test
+    void testGetComplaintSlaReport() {
+        ComplaintSlaResponse urgent = new ComplaintSlaResponse(Priority.URGENT, 240);
+        urgent.setP90Minutes(180.5);
+        when(analyticsService.getComplaintSlaReport()).thenReturn(List.of(urgent));
+
+        ResponseEntity<List<ComplaintSlaResponse>> response = analyticsController.getComplaintSlaReport();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Priority.URGENT, response.getBody().get(0).getPriority());
+        assertEquals(180.5, response.getBody().get(0).getP90Minutes());
+    }
+
+    @Test
+    void testGetPerformanceAnalytics() {
+        when(analyticsService.getPerformanceAnalytics()).thenReturn(dummyStats);
+
+        ResponseEntity<Map<String, Long>> response = analyticsController.getPerformanceAnalytics();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().size());
+    }
 }
@@ -1,19 +1,31 @@
 package com.skylink.controller;
 
+import com.skylink.config.ClientIpResolver;
 import com.skylink.dto.LoginRequest;
 import com.skylink.dto.LoginResponse;
+import com.skylink.dto.RefreshTokenRequest;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
+import com.skylink.exception.TooManyRequestsException;
+import com.skylink.service.LoginRateLimiter;
 import com.skylink.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AuthControllerTest {
@@ -21,6 +33,12 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Spy
+    private ClientIpResolver clientIpResolver = new ClientIpResolver(List.of("10.0.0.0/8"));
+
     @InjectMocks
     private AuthController authController;
 
@@ -60,21 +78,70 @@ class AuthControllerTest {
 
     @Test
     void testLogin() {
-        when(userService.login(any(LoginRequest.class))).thenReturn("dummy-token");
-        when(userService.getUserByEmail("test@example.com")).thenReturn(userResponse);
+        when(userService.authenticate(any(LoginRequest.class)))
+                .thenReturn(new LoginResponse("dummy-token", userResponse));
 
-        ResponseEntity<LoginResponse> response = authController.login(loginRequest);
+        ResponseEntity<LoginResponse> response = authController.login(loginRequest, httpRequest());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("dummy-token", response.getBody().getToken());
         assertEquals("test@example.com", response.getBody().getUser().getEmail());
+        verify(loginRateLimiter).checkLogin("test@example.com", "10.0.0.1");
+        verify(userService, never()).getUserByEmail(anyString());
+    }
+
+    @Test
+    void testLoginThrottledBeforeAuthentication() {
+        doThrow(new TooManyRequestsException("Too many login attempts, try again later", 6))
+                .when(loginRateLimiter).checkLogin("test@example.com", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> authController.login(loginRequest, httpRequest()));
+        verify(userService, never()).authenticate(any(LoginRequest.class));
+    }
+
+    @Test
+    void testLoginLimitedByForwardedClientIp() {
+        MockHttpServletRequest request = httpRequest();
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.2");
+
+        authController.login(loginRequest, request);
+
+        verify(loginRateLimiter).checkLogin("test@example.com", "203.0.113.7");
+    }
+
+    private MockHttpServletRequest httpRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    @Test
+    void testRefresh() {
+        when(userService.refresh("refresh-token"))
+                .thenReturn(new LoginResponse("new-token", "new-refresh-token", userResponse));
+
+        ResponseEntity<LoginResponse> response = authController.refresh(new RefreshTokenRequest("refresh-token"));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("new-token", response.getBody().getToken());
+        assertEquals("new-refresh-token", response.getBody().getRefreshToken());
     }
 
     @Test
     void testLogout() {
-        ResponseEntity<String> response = authController.logout();
+        ResponseEntity<String> response = authController.logout("Bearer access-token",
+                new RefreshTokenRequest("refresh-token"));
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Logged out successfully", response.getBody());
+        verify(userService).logout("access-token", "refresh-token");
+    }
+
+    @Test
+    void testLogoutWithoutTokens() {
+        ResponseEntity<String> response = authController.logout(null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(userService).logout(null, null);
     }
 }
@@ -1,5 +1,6 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.FAQRequest;
 import com.skylink.dto.FAQResponse;
 import com.skylink.service.FAQService;
@@ -60,13 +61,14 @@ class FAQControllerTest {
 
     @Test
     void testGetAllFAQs() {
-        when(faqService.getAllFAQs()).thenReturn(Arrays.asList(faqResponse));
+        when(faqService.getAllFAQs(null, 50)).thenReturn(new CursorPage<>(Arrays.asList(faqResponse), null));
 
-        ResponseEntity<List<FAQResponse>> response = faqController.getAllFAQs();
+        ResponseEntity<List<FAQResponse>> response = faqController.getAllFAQs(null, 50);
 
         assertEquals(1, response.getBody().size());
         assertEquals("General", response.getBody().get(0).getCategory());
-        verify(faqService, times(1)).getAllFAQs();
+        assertFalse(response.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER));
+        verify(faqService, times(1)).getAllFAQs(null, 50);
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.PlanRequest;
 import com.skylink.dto.PlanResponse;
 import com.skylink.service.PlanService;
@@ -83,15 +84,15 @@ class PlanControllerTest {
 
     @Test
     void testGetAllPlans() {
-        when(planService.getAllPlans()).thenReturn(Arrays.asList(planResponse));
+        when(planService.getAllPlans(null, 50)).thenReturn(new CursorPage<>(Arrays.asList(planResponse), null));
 
-        ResponseEntity<List<PlanResponse>> response = planController.getAllPlans();
+        ResponseEntity<List<PlanResponse>> response = planController.getAllPlans(null, 50);
 
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals("Basic Plan", response.getBody().get(0).getName());
 
-        verify(planService, times(1)).getAllPlans();
+        verify(planService, times(1)).getAllPlans(null, 50);
     }
 
     @Test
@@ -1,8 +1,13 @@
 package com.skylink.controller;
 
+import com.skylink.dto.CursorPage;
+import com.skylink.dto.SubscriptionBatchRequest;
+import com.skylink.dto.SubscriptionBatchResponse;
 import com.skylink.dto.SubscriptionRequest;
 import com.skylink.dto.SubscriptionResponse;
 import com.skylink.entity.SubscriptionStatus;
+import com.skylink.service.IdempotencyService;
+import com.skylink.service.SubscriptionBatchService;
 import com.skylink.service.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +17,10 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +33,12 @@ class SubscriptionControllerTest {
     @Mock
     private SubscriptionService subscriptionService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private SubscriptionBatchService subscriptionBatchService;
+
     private SubscriptionResponse subscriptionResponse;
 
     @BeforeEach
@@ -42,8 +56,12 @@ class SubscriptionControllerTest {
     void testCreateSubscription() {
         SubscriptionRequest request = new SubscriptionRequest();
         when(subscriptionService.createSubscription(request)).thenReturn(subscriptionResponse);
+        when(idempotencyService.execute(eq("POST /api/subscriptions:customer@example.com"), eq("key-1"), eq(request),
+                eq(SubscriptionResponse.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
 
-        ResponseEntity<SubscriptionResponse> response = subscriptionController.createSubscription(request);
+        ResponseEntity<SubscriptionResponse> response =
+                subscriptionController.createSubscription(request, "key-1", () -> "customer@example.com");
 
         assertEquals(201, response.getStatusCodeValue());
         assertEquals(1L, response.getBody().getId());
@@ -74,13 +92,15 @@ class SubscriptionControllerTest {
 
     @Test
     void testGetAllSubscriptions() {
-        when(subscriptionService.getAllSubscriptions()).thenReturn(Arrays.asList(subscriptionResponse));
+        when(subscriptionService.getAllSubscriptions("abc", 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(subscriptionResponse), "next"));
 
-        ResponseEntity<List<SubscriptionResponse>> response = subscriptionController.getAllSubscriptions();
+        ResponseEntity<List<SubscriptionResponse>> response = subscriptionController.getAllSubscriptions("abc", 1);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(1, response.getBody().size());
-        verify(subscriptionService, times(1)).getAllSubscriptions();
+        assertEquals("next", response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+        verify(subscriptionService, times(1)).getAllSubscriptions("abc", 1);
     }
 
     @Test
@@ -131,6 +151,22 @@ class SubscriptionControllerTest {
         verify(subscriptionService, times(1)).renewSubscription(1L);
     }
 
+    @Test
+    void testRenewSubscriptionsBatch() {
+        Map<Long, SubscriptionBatchResponse.Outcome> results = new LinkedHashMap<>();
+        results.put(1L, SubscriptionBatchResponse.Outcome.RENEWED);
+        results.put(2L, SubscriptionBatchResponse.Outcome.NOT_FOUND);
+        when(subscriptionBatchService.renewSubscriptions(List.of(1L, 2L))).thenReturn(new SubscriptionBatchResponse(results));
+
+        ResponseEntity<SubscriptionBatchResponse> response =
+                subscriptionController.renewSubscriptions(new SubscriptionBatchRequest(List.of(1L, 2L)));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().getRequested());
+        assertEquals(1, response.getBody().getSucceeded());
+        verify(subscriptionBatchService, times(1)).renewSubscriptions(List.of(1L, 2L));
+    }
+
     @Test
     void testGetTotalActiveSubscriptions() {
         when(subscriptionService.getTotalActiveSubscriptions()).thenReturn(5L);
@@ -3,6 +3,9 @@ package com.skylink.controller;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
+import com.skylink.exception.InvalidRequestException;
+import com.skylink.service.ExportFormat;
+import com.skylink.service.ExportService;
 import com.skylink.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +13,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserControllerTest {
@@ -25,6 +36,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ExportService exportService;
+
     private UserResponse userResponse;
 
     @BeforeEach
@@ -65,4 +79,29 @@ class UserControllerTest {
         assertEquals("Swetha", response.getBody().get(0).getName());
         verify(userService, times(1)).getUsersByRole(Role.CUSTOMER);
     }
+
+    @Test
+    void testExportUsersStreamsGzippedCsv() throws Exception {
+        when(exportService.exportUsers(eq(ExportFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,name\r\n1,Swetha\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsers("csv", true);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getContentDisposition().toString().contains("users.csv.gz"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals("id,name\r\n1,Swetha\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testExportUsersRejectsUnknownFormat() {
+        assertThrows(InvalidRequestException.class, () -> userController.exportUsers("xml", false));
+        verifyNoInteractions(exportService);
+    }
 }
@@ -1,21 +1,27 @@
 package com.skylink.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.skylink.dto.ComplaintResponse;
 import com.skylink.entity.Complaint;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Priority;
 import com.skylink.entity.Role;
 import com.skylink.entity.User;
+import com.skylink.util.KeysetCursor;
 
 @DataJpaTest
 @Transactional
@@ -27,6 +33,9 @@ class ComplaintRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User testUser;
     private User secondUser;
     private Complaint openComplaint;
@@ -181,4 +190,167 @@ class ComplaintRepositoryTest {
         long count = complaintRepository.countPendingComplaintsByUserId(testUser.getId());
         assertThat(count).isEqualTo(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindResponsesByUserId() {
+        List<ComplaintResponse> responses = complaintRepository.findResponsesByUserId(testUser.getId());
+        assertThat(responses).hasSize(2);
+        assertThat(responses).extracting(ComplaintResponse::getUserEmail).containsOnly("john@example.com");
+        assertThat(responses.get(0).getSubject()).isEqualTo("slow internet speed");
+    }
+
+    @Test
+    void testClaimSucceedsOnlyForOpenComplaints() {
+        assertThat(complaintRepository.findOpenDispatchEntries())
+                .extracting(ComplaintRepository.DispatchEntry::getId)
+                .containsExactly(openComplaint.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(complaintRepository.claim(openComplaint.getId(), 7L, now)).isEqualTo(1);
+        assertThat(complaintRepository.claim(openComplaint.getId(), 8L, now)).isZero();
+        assertThat(complaintRepository.claim(inProgressComplaint.getId(), 8L, now)).isZero();
+
+        entityManager.clear();
+        Complaint claimed = complaintRepository.findById(openComplaint.getId()).get();
+        assertThat(claimed.getStatus()).isEqualTo(ComplaintStatus.IN_PROGRESS);
+        assertThat(claimed.getAssignedAgentId()).isEqualTo(7L);
+        assertThat(complaintRepository.findOpenDispatchEntries()).isEmpty();
+    }
+
+    @Test
+    void testStreamAllResponsesInIdOrder() {
+        try (Stream<ComplaintResponse> rows = complaintRepository.streamAllResponses()) {
+            assertThat(rows.map(ComplaintResponse::getId))
+                    .containsExactly(openComplaint.getId(), inProgressComplaint.getId(), resolvedComplaint.getId());
+        }
+    }
+
+    @Test
+    void testStreamSearchDocumentsUpdatedSince() {
+        try (Stream<ComplaintRepository.SearchDocument> rows = complaintRepository.streamSearchDocuments()) {
+            assertThat(rows.map(ComplaintRepository.SearchDocument::getId)).hasSize(3);
+        }
+
+        LocalDateTime since = LocalDateTime.now().plusMinutes(1);
+        complaintRepository.claim(openComplaint.getId(), 7L, since.plusMinutes(1));
+        try (Stream<ComplaintRepository.SearchDocument> rows = complaintRepository.streamSearchDocumentsUpdatedSince(since)) {
+            assertThat(rows.map(ComplaintRepository.SearchDocument::getId)).containsExactly(openComplaint.getId());
+        }
+    }
+
+    @Test
+    void testFindResponsesByIdIn() {
+        assertThat(complaintRepository.findResponsesByIdIn(List.of(resolvedComplaint.getId(), openComplaint.getId(), -1L)))
+                .extracting(ComplaintResponse::getId)
+                .containsExactlyInAnyOrder(openComplaint.getId(), resolvedComplaint.getId());
+    }
+
+    @Test
+    void testSlaBreachIsMarkedOnceForPendingComplaints() {
+        assertThat(complaintRepository.findUnbreachedSlaTimers())
+                .extracting(ComplaintRepository.SlaTimer::getId)
+                .containsExactlyInAnyOrder(openComplaint.getId(), inProgressComplaint.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = List.of(openComplaint.getId(), resolvedComplaint.getId());
+        assertThat(complaintRepository.lockUnbreachedByIdIn(ids))
+                .extracting(Complaint::getId)
+                .containsExactly(openComplaint.getId());
+        assertThat(complaintRepository.markSlaBreached(List.of(openComplaint.getId()), now)).isEqualTo(1);
+        assertThat(complaintRepository.markSlaBreached(List.of(openComplaint.getId()), now)).isZero();
+
+        entityManager.clear();
+        assertThat(complaintRepository.findUnbreachedSlaTimers())
+                .extracting(ComplaintRepository.SlaTimer::getId)
+                .containsExactly(inProgressComplaint.getId());
+        assertThat(complaintRepository.countSlaBreachesSince(now.minusDays(1)))
+                .extracting(ComplaintRepository.PriorityCount::getTotal)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void testStreamResolutionTimesSince() {
+        try (Stream<ComplaintRepository.ResolutionTime> rows = complaintRepository.streamResolutionTimesSince(LocalDateTime.now().minusDays(1))) {
+            assertThat(rows.map(ComplaintRepository.ResolutionTime::getResolvedAt)).hasSize(1).doesNotContainNull();
+        }
+    }
+
+    @Test
+    void testUpdateStatusAllKeepsResolvedAtSemantics() {
+        entityManager.clear();
+        LocalDateTime originalResolvedAt = complaintRepository.findById(resolvedComplaint.getId()).get().getResolvedAt();
+        complaintRepository.claim(openComplaint.getId(), 7L, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now().plusMinutes(1);
+
+        List<Long> ids = List.of(openComplaint.getId(), resolvedComplaint.getId());
+        assertThat(complaintRepository.lockAllByIdIn(ids)).hasSize(2);
+        assertThat(complaintRepository.updateStatusAll(ids, ComplaintStatus.RESOLVED, now)).isEqualTo(2);
+        assertThat(complaintRepository.updateAdminResponseAll(ids, "outage fixed", now)).isEqualTo(2);
+
+        Complaint first = complaintRepository.findById(openComplaint.getId()).get();
+        assertThat(first.getStatus()).isEqualTo(ComplaintStatus.RESOLVED);
+        assertThat(first.getPriority()).isEqualTo(Priority.HIGH);
+        assertThat(first.getAdminResponse()).isEqualTo("outage fixed");
+        assertThat(first.getAssignedAgentId()).isEqualTo(7L);
+        assertThat(first.getResolvedAt()).isAfter(now.minusSeconds(1));
+        assertThat(complaintRepository.findById(resolvedComplaint.getId()).get().getResolvedAt()).isEqualTo(originalResolvedAt);
+    }
+
+    @Test
+    void testUpdateStatusAllReopenClearsAgent() {
+        complaintRepository.claim(openComplaint.getId(), 7L, LocalDateTime.now());
+
+        complaintRepository.updateStatusAll(List.of(openComplaint.getId()), ComplaintStatus.OPEN, LocalDateTime.now());
+
+        Complaint reopened = complaintRepository.findById(openComplaint.getId()).get();
+        assertThat(reopened.getStatus()).isEqualTo(ComplaintStatus.OPEN);
+        assertThat(reopened.getAssignedAgentId()).isNull();
+        assertThat(reopened.getAdminResponse()).isNull();
+        assertThat(reopened.getResolvedAt()).isNull();
+
+        complaintRepository.updatePriorityAll(List.of(openComplaint.getId()), Priority.URGENT, LocalDateTime.now());
+        assertThat(complaintRepository.findById(openComplaint.getId()).get())
+                .extracting(Complaint::getStatus, Complaint::getPriority)
+                .containsExactly(ComplaintStatus.OPEN, Priority.URGENT);
+    }
+
+    @Test
+    void testIncidentQueries() {
+        Long incidentId = openComplaint.getId();
+        inProgressComplaint.setIncidentId(incidentId);
+        resolvedComplaint.setIncidentId(resolvedComplaint.getId());
+        complaintRepository.saveAll(List.of(inProgressComplaint, resolvedComplaint));
+
+        assertThat(complaintRepository.openIncident(incidentId)).isEqualTo(1);
+        assertThat(complaintRepository.openIncident(incidentId)).isZero();
+        entityManager.clear();
+
+        assertThat(complaintRepository.findOpenIncidents(PageRequest.of(0, 10)))
+                .singleElement()
+                .satisfies(incident -> {
+                    assertThat(incident.getIncidentId()).isEqualTo(incidentId);
+                    assertThat(incident.getSubject()).isEqualTo("internet not working");
+                    assertThat(incident.getComplaints()).isEqualTo(2);
+                    assertThat(incident.getPendingComplaints()).isEqualTo(2);
+                    assertThat(incident.getFirstReportedAt()).isBefore(incident.getLastReportedAt());
+                });
+        List<ComplaintResponse> firstPage = complaintRepository.findResponsesByIncidentIdAfter(
+                incidentId, KeysetCursor.START.getCreatedAt(), KeysetCursor.START.getId(), PageRequest.of(0, 1));
+        assertThat(firstPage)
+                .extracting(ComplaintResponse::getId, ComplaintResponse::getIncidentId)
+                .containsExactly(tuple(openComplaint.getId(), incidentId));
+        assertThat(complaintRepository.findResponsesByIncidentIdAfter(
+                incidentId, firstPage.get(0).getCreatedAt(), firstPage.get(0).getId(), PageRequest.of(0, 10)))
+                .extracting(ComplaintResponse::getId)
+                .containsExactly(inProgressComplaint.getId());
+        assertThat(complaintRepository.findPendingIdsByIncidentId(incidentId, 0L, PageRequest.of(0, 1)))
+                .containsExactly(Math.min(openComplaint.getId(), inProgressComplaint.getId()));
+        assertThat(complaintRepository.findPendingIdsByIncidentId(incidentId, Math.max(openComplaint.getId(), inProgressComplaint.getId()), PageRequest.of(0, 10)))
+                .isEmpty();
+        assertThat(complaintRepository.findPendingIdsByIncidentId(resolvedComplaint.getId(), 0L, PageRequest.of(0, 10))).isEmpty();
+        assertThat(complaintRepository.existsByIncidentId(resolvedComplaint.getId())).isTrue();
+        try (Stream<ComplaintRepository.IncidentDocument> rows = complaintRepository.streamPendingIncidentDocuments()) {
+            assertThat(rows.map(ComplaintRepository.IncidentDocument::getIncidentId)).containsExactly(incidentId, incidentId);
+        }
+    }
+}
@@ -1,24 +1,32 @@
 package com.skylink.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import com.skylink.dto.SubscriptionResponse;
 import com.skylink.entity.Plan;
 import com.skylink.entity.Role;
 import com.skylink.entity.Subscription;
 import com.skylink.entity.SubscriptionStatus;
 import com.skylink.entity.User;
+import com.skylink.util.KeysetCursor;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class SubscriptionRepositoryTest {
 
     @Autowired
@@ -30,6 +38,9 @@ class SubscriptionRepositoryTest {
     @Autowired
     private PlanRepository planRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User testUser;
     private Plan testPlan;
     private Plan premiumPlan;
@@ -89,7 +100,7 @@ class SubscriptionRepositoryTest {
             LocalDateTime.now(),
             LocalDateTime.now().plusDays(15)
         );
-        secondSubscription.setStatus(SubscriptionStatus.ACTIVE);
+        secondSubscription.setStatus(SubscriptionStatus.EXPIRED);
         subscriptionRepository.save(secondSubscription);
 
         List<Subscription> subscriptions = subscriptionRepository.findByUserOrderByCreatedAtDesc(testUser);
@@ -138,9 +149,10 @@ class SubscriptionRepositoryTest {
 
     @Test
     void testFindExpiredSubscriptions() {
-        // Create expired subscription
+        // Create expired subscription; a user holds only one active subscription
+        User lapsedUser = userRepository.save(new User("Lapsed User", "lapsed@example.com", "9000000099", "password", Role.CUSTOMER));
         Subscription expiredSubscription = new Subscription(
-            testUser,
+            lapsedUser,
             testPlan,
             LocalDateTime.now().minusDays(60),
             LocalDateTime.now().minusDays(30)
@@ -229,8 +241,9 @@ class SubscriptionRepositoryTest {
 
     @Test
     void testSubscriptionCreationTimestamps() {
+        User newUser = userRepository.save(new User("Jane Doe", "jane@example.com", "0987654321", "password", Role.CUSTOMER));
         Subscription newSubscription = new Subscription(
-            testUser,
+            newUser,
             premiumPlan,
             LocalDateTime.now(),
             LocalDateTime.now().plusDays(10)
@@ -255,4 +268,154 @@ class SubscriptionRepositoryTest {
         assertThat(updatedSubscription.getUpdatedAt()).isAfterOrEqualTo(originalUpdatedAt);
         assertThat(updatedSubscription.getCreatedAt()).isEqualTo(activeSubscription.getCreatedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExpireSubscriptionsInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        User lapsedUser = userRepository.save(new User("Lapsed User", "lapsed@example.com", "9000000099", "password", Role.CUSTOMER));
+        Subscription overdue = subscriptionRepository.save(new Subscription(lapsedUser, testPlan, now.minusDays(40), now.minusDays(10)));
+        Subscription overdueCancelled = new Subscription(testUser, premiumPlan, now.minusDays(40), now.minusDays(5));
+        overdueCancelled.setStatus(SubscriptionStatus.CANCELLED);
+        overdueCancelled = subscriptionRepository.save(overdueCancelled);
+
+        List<Long> ids = subscriptionRepository.findExpiredSubscriptionIds(now, 0L, PageRequest.of(0, 10));
+        assertThat(ids).containsExactly(overdue.getId());
+
+        // Includes a row that is not overdue; the guard in the update must leave it alone
+        int updated = subscriptionRepository.expireSubscriptions(
+                List.of(overdue.getId(), overdueCancelled.getId(), activeSubscription.getId()), now);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(subscriptionRepository.findById(overdue.getId()).get().getStatus()).isEqualTo(SubscriptionStatus.EXPIRED);
+        assertThat(subscriptionRepository.findById(overdue.getId()).get().getActiveUserId()).isNull();
+        assertThat(subscriptionRepository.findById(overdueCancelled.getId()).get().getStatus()).isEqualTo(SubscriptionStatus.CANCELLED);
+        assertThat(subscriptionRepository.findById(activeSubscription.getId()).get().getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
+        assertThat(subscriptionRepository.expireSubscriptions(List.of(overdue.getId()), now)).isZero();
+    }
+
+    @Test
+    void testSecondActiveSubscriptionForUserIsRejected() {
+        assertThat(activeSubscription.getActiveUserId()).isEqualTo(testUser.getId());
+
+        Subscription duplicate = new Subscription(testUser, premiumPlan, LocalDateTime.now(), LocalDateTime.now().plusDays(30));
+
+        assertThatThrownBy(() -> subscriptionRepository.save(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testActiveUserIdClearedWhenSubscriptionLeavesActive() {
+        activeSubscription.setStatus(SubscriptionStatus.CANCELLED);
+        subscriptionRepository.saveAndFlush(activeSubscription);
+        assertThat(activeSubscription.getActiveUserId()).isNull();
+
+        Subscription replacement = subscriptionRepository.save(
+                new Subscription(testUser, premiumPlan, LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+
+        assertThat(replacement.getActiveUserId()).isEqualTo(testUser.getId());
+    }
+
+    @Test
+    void testLegacyActiveSubscriptionsAreFoundAndBackfilled() {
+        User otherUser = userRepository.save(new User("Jane Doe", "jane@example.com", "0987654321", "password", Role.CUSTOMER));
+        Subscription first = subscriptionRepository.saveAndFlush(
+                new Subscription(otherUser, testPlan, LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+        clearActiveUserId(first.getId());
+        Subscription second = subscriptionRepository.saveAndFlush(
+                new Subscription(otherUser, premiumPlan, LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+        clearActiveUserId(second.getId());
+        clearActiveUserId(activeSubscription.getId());
+
+        assertThat(subscriptionRepository.findActiveHolders(List.of(testUser.getId(), otherUser.getId())))
+                .extracting(SubscriptionRepository.ActiveHolder::getId)
+                .containsExactlyInAnyOrder(activeSubscription.getId(), first.getId(), second.getId());
+
+        // The user with two active subscriptions is left for a manual cleanup
+        List<Long> unclaimed = subscriptionRepository.findUnclaimedActiveIds(PageRequest.of(0, 10));
+        assertThat(unclaimed).containsExactly(activeSubscription.getId());
+        assertThat(subscriptionRepository.claimActiveUser(unclaimed)).isEqualTo(1);
+
+        assertThat(subscriptionRepository.findById(activeSubscription.getId()).get().getActiveUserId()).isEqualTo(testUser.getId());
+        assertThat(subscriptionRepository.countUnclaimedActive()).isEqualTo(2);
+    }
+
+    private void clearActiveUserId(Long id) {
+        entityManager.getEntityManager().createNativeQuery("UPDATE subscriptions SET active_user_id = NULL WHERE id = :id")
+                .setParameter("id", id).executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void testBatchCancelAndRenewKeepActiveUserIdInSync() {
+        User otherUser = userRepository.save(new User("Jane Doe", "jane@example.com", "0987654321", "password", Role.CUSTOMER));
+        Subscription other = subscriptionRepository.save(
+                new Subscription(otherUser, premiumPlan, LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+        List<Long> ids = List.of(other.getId(), activeSubscription.getId());
+
+        assertThat(subscriptionRepository.lockAllByIdIn(ids)).extracting(Subscription::getId)
+                .containsExactly(activeSubscription.getId(), other.getId());
+        assertThat(subscriptionRepository.findActiveHolders(List.of(testUser.getId(), otherUser.getId())))
+                .extracting(SubscriptionRepository.ActiveHolder::getId)
+                .containsExactlyInAnyOrder(activeSubscription.getId(), other.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(subscriptionRepository.cancelAll(ids, now)).isEqualTo(2);
+        assertThat(subscriptionRepository.findActiveHolders(List.of(testUser.getId(), otherUser.getId()))).isEmpty();
+
+        assertThat(subscriptionRepository.renewAll(List.of(other.getId()), now, now.plusDays(30))).isEqualTo(1);
+        Subscription renewed = subscriptionRepository.findById(other.getId()).get();
+        assertThat(renewed.getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
+        assertThat(renewed.getActiveUserId()).isEqualTo(otherUser.getId());
+        assertThat(renewed.getEndDate()).isAfter(now.plusDays(29));
+    }
+
+    @Test
+    void testListQueriesUseOneStatementForManyRows() {
+        for (int i = 0; i < 10; i++) {
+            User user = userRepository.save(new User("User " + i, "user" + i + "@example.com", "90000000" + String.format("%02d", i), "password", Role.CUSTOMER));
+            Plan plan = planRepository.save(new Plan("Plan " + i, "Plan " + i, BigDecimal.valueOf(100 + i), 30, 100, 50));
+            subscriptionRepository.save(new Subscription(user, plan, LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<SubscriptionResponse> page = subscriptionRepository.findResponsesAfter(
+                KeysetCursor.START.getCreatedAt(), KeysetCursor.START.getId(), PageRequest.of(0, 20));
+        page.forEach(s -> assertThat(s.getUserName() + s.getPlanName()).isNotBlank());
+        assertThat(page).hasSize(11);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        statistics.clear();
+        List<SubscriptionResponse> active = subscriptionRepository.findResponsesByStatus(SubscriptionStatus.ACTIVE);
+        active.forEach(s -> assertThat(s.getUserEmail() + s.getPlanPrice()).isNotBlank());
+        assertThat(active).hasSize(11);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testResponseProjectionsLoadNoEntities() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<SubscriptionResponse> responses = subscriptionRepository.findResponsesByStatus(SubscriptionStatus.ACTIVE);
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getUserEmail()).isEqualTo("john@example.com");
+        assertThat(responses.get(0).getPlanName()).isEqualTo("Basic Plan");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertThat(subscriptionRepository.findActiveResponseByUserId(testUser.getId()))
+                .hasValueSatisfying(r -> assertThat(r.getId()).isEqualTo(activeSubscription.getId()));
+    }
+}
@@ -1,12 +1,15 @@
 
 package com.skylink.dao;
 
+import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
 import com.skylink.entity.User;
+import com.skylink.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -93,4 +96,27 @@ class UserRepositoryTest {
         assertThat(resultsByEmail).hasSize(1);
         assertThat(resultsByEmail.get(0).getName()).isEqualTo("Charlie");
     }
+
+    @Test
+    void testFindResponseProjections() {
+        Optional<UserResponse> found = userRepository.findResponseByEmail("alice@example.com");
+        assertThat(found).isPresent();
+        assertThat(found.get().getName()).isEqualTo("Alice");
+        assertThat(userRepository.findResponsesByRole(Role.ADMIN)).extracting(UserResponse::getEmail)
+            .containsExactly("bob@example.com");
+    }
+
+    @Test
+    void testFindResponsesAfter_WalksAllRowsInKeysetOrder() {
+        KeysetCursor start = KeysetCursor.START;
+        List<UserResponse> first = userRepository.findResponsesAfter(start.getCreatedAt(), start.getId(), PageRequest.of(0, 2));
+        assertThat(first).hasSize(2);
+
+        UserResponse last = first.get(1);
+        List<UserResponse> second = userRepository.findResponsesAfter(last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        assertThat(second).hasSize(1);
+
+        assertThat(List.of(first.get(0), first.get(1), second.get(0))).extracting(UserResponse::getEmail)
+            .containsExactlyInAnyOrder("alice@example.com", "bob@example.com", "charlie@example.com");
+    }
 }
@@ -0,0 +1,73 @@
+package com.skylink.service;
+
+import com.skylink.dto.SubscriptionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveSubscriptionCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<SubscriptionResponse> active(LocalDateTime endDate) {
+        SubscriptionResponse response = new SubscriptionResponse();
+        response.setId(10L);
+        response.setUserId(1L);
+        response.setEndDate(endDate);
+        return Optional.of(response);
+    }
+
+    @Test
+    void testPositiveAndNegativeEntriesAreCached() {
+        ActiveSubscriptionCache cache = new ActiveSubscriptionCache(10, 60_000L, 60_000L);
+        Optional<SubscriptionResponse> subscription = active(LocalDateTime.now().plusDays(5));
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return subscription; });
+        cache.get(1L, id -> { loads.incrementAndGet(); return subscription; });
+        cache.get(2L, id -> { loads.incrementAndGet(); return Optional.empty(); });
+        assertFalse(cache.get(2L, id -> { loads.incrementAndGet(); return Optional.empty(); }).isPresent());
+
+        assertEquals(2, loads.get());
+        Map<String, Long> stats = cache.getStats();
+        assertEquals(2L, stats.get("subscription.activeCache.hits"));
+        assertEquals(1L, stats.get("subscription.activeCache.negativeLoads"));
+    }
+
+    @Test
+    void testEntryDoesNotOutliveEndDate() {
+        ActiveSubscriptionCache cache = new ActiveSubscriptionCache(10, 60_000L, 60_000L);
+        Optional<SubscriptionResponse> ended = active(LocalDateTime.now().minusSeconds(1));
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return ended; });
+        cache.get(1L, id -> { loads.incrementAndGet(); return ended; });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateAgainAfterTransactionCompletes() {
+        ActiveSubscriptionCache cache = new ActiveSubscriptionCache(10, 60_000L, 60_000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L);
+            // A concurrent reader re-caches the pre-commit answer
+            cache.get(1L, id -> Optional.empty());
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Optional<SubscriptionResponse> subscription = active(LocalDateTime.now().plusDays(5));
+        assertSame(subscription, cache.get(1L, id -> subscription));
+    }
+}
@@ -14,9 +14,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +35,9 @@ class AnalyticsServiceTest {
     @Mock
     private ComplaintRepository complaintRepository;
 
+    @Mock
+    private ComplaintSlaMonitor complaintSlaMonitor;
+
     @InjectMocks
     private AnalyticsService analyticsService;
 
@@ -141,4 +146,16 @@ class AnalyticsServiceTest {
         assertEquals(2L, result.get("resolved"));
         assertEquals(1L, result.get("closed"));
     }
+
+    @Test
+    void testGetPerformanceAnalytics() {
+        StatsProvider cache = () -> Map.of("jwt.claimsCache.hits", 7L, "jwt.claimsCache.misses", 3L);
+        StatsProvider queue = () -> Map.of("complaint.dispatchQueue.size", 4L);
+        ReflectionTestUtils.setField(analyticsService, "statsProviders", List.of(cache, queue));
+
+        Map<String, Long> result = analyticsService.getPerformanceAnalytics();
+
+        assertEquals(Map.of("jwt.claimsCache.hits", 7L, "jwt.claimsCache.misses", 3L,
+                "complaint.dispatchQueue.size", 4L), result);
+    }
 }
@@ -0,0 +1,171 @@
+package com.skylink.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.dto.ComplaintBatchResponse;
+import com.skylink.dto.ComplaintBatchResponse.Outcome;
+import com.skylink.dto.ComplaintBatchUpdateRequest;
+import com.skylink.entity.Complaint;
+import com.skylink.entity.ComplaintStatus;
+import com.skylink.entity.Priority;
+import com.skylink.exception.InvalidRequestException;
+import com.skylink.exception.ResourceNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class ComplaintBatchServiceTest {
+
+    @Mock
+    private ComplaintRepository complaintRepository;
+
+    @Mock
+    private ComplaintService complaintService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ComplaintBatchService complaintBatchService;
+
+    private final LocalDateTime createdAt = LocalDateTime.now().minusHours(3);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private Complaint complaint(Long id, ComplaintStatus status, LocalDateTime resolvedAt) {
+        Complaint complaint = new Complaint();
+        complaint.setId(id);
+        complaint.setStatus(status);
+        complaint.setPriority(Priority.MEDIUM);
+        complaint.setCreatedAt(createdAt);
+        complaint.setResolvedAt(resolvedAt);
+        return complaint;
+    }
+
+    @Test
+    void testResolveComplaints() {
+        Complaint open = complaint(1L, ComplaintStatus.OPEN, null);
+        Complaint alreadyResolved = complaint(2L, ComplaintStatus.RESOLVED, createdAt.plusHours(1));
+        when(complaintRepository.lockAllByIdIn(List.of(1L, 2L, 99L))).thenReturn(List.of(open, alreadyResolved));
+
+        ComplaintBatchResponse response = complaintBatchService.updateComplaints(new ComplaintBatchUpdateRequest(
+                List.of(1L, 2L, 99L, 1L), ComplaintStatus.RESOLVED, null, "Outage fixed"));
+
+        assertThat(response.getResults()).containsExactly(
+                entry(1L, Outcome.UPDATED),
+                entry(2L, Outcome.UPDATED),
+                entry(99L, Outcome.NOT_FOUND));
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        verify(complaintRepository).updateStatusAll(eq(List.of(1L, 2L)), eq(ComplaintStatus.RESOLVED), any());
+        verify(complaintRepository).updateAdminResponseAll(eq(List.of(1L, 2L)), eq("Outage fixed"), any());
+        verify(complaintRepository, never()).updatePriorityAll(anyCollection(), any(), any());
+        verify(complaintService).syncTracking(1L, ComplaintStatus.RESOLVED, Priority.MEDIUM, createdAt, null, true);
+        verify(complaintService).syncTracking(2L, ComplaintStatus.RESOLVED, Priority.MEDIUM, createdAt, null, false);
+    }
+
+    @Test
+    void testPriorityOnlyKeepsStatus() {
+        Complaint inProgress = complaint(3L, ComplaintStatus.IN_PROGRESS, null);
+        when(complaintRepository.lockAllByIdIn(List.of(3L))).thenReturn(List.of(inProgress));
+
+        complaintBatchService.updateComplaints(new ComplaintBatchUpdateRequest(List.of(3L), null, Priority.URGENT, "  "));
+
+        verify(complaintRepository).updatePriorityAll(eq(List.of(3L)), eq(Priority.URGENT), any());
+        verify(complaintRepository, never()).updateStatusAll(anyCollection(), any(), any());
+        verify(complaintRepository, never()).updateAdminResponseAll(anyCollection(), any(), any());
+        verify(complaintService).syncTracking(3L, ComplaintStatus.IN_PROGRESS, Priority.URGENT, createdAt, null, false);
+    }
+
+    @Test
+    void testAdminResponseOnlyLeavesTrackingAlone() {
+        when(complaintRepository.lockAllByIdIn(List.of(3L))).thenReturn(List.of(complaint(3L, ComplaintStatus.OPEN, null)));
+
+        complaintBatchService.updateComplaints(new ComplaintBatchUpdateRequest(List.of(3L), null, null, "We are on it"));
+
+        verify(complaintRepository).updateAdminResponseAll(eq(List.of(3L)), eq("We are on it"), any());
+        verify(complaintService, never()).syncTracking(any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testIdsAreProcessedInChunks() {
+        ReflectionTestUtils.setField(complaintBatchService, "chunkSize", 2);
+        when(complaintRepository.lockAllByIdIn(anyCollection())).thenReturn(List.of());
+
+        ComplaintBatchResponse response = complaintBatchService.updateComplaints(new ComplaintBatchUpdateRequest(
+                List.of(1L, 2L, 3L, 4L, 5L), ComplaintStatus.CLOSED, null, null));
+
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(complaintRepository, never()).updateStatusAll(anyCollection(), any(), any());
+        assertThat(response.getResults()).hasSize(5).containsOnlyKeys(1L, 2L, 3L, 4L, 5L);
+        assertThat(response.getSucceeded()).isZero();
+    }
+
+    @Test
+    void testUpdateIncidentTargetsPendingComplaintsInChunks() {
+        ReflectionTestUtils.setField(complaintBatchService, "chunkSize", 2);
+        when(complaintRepository.findPendingIdsByIncidentId(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 4L));
+        when(complaintRepository.findPendingIdsByIncidentId(eq(1L), eq(4L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(complaintRepository.lockAllByIdIn(List.of(1L, 4L))).thenReturn(List.of(
+                complaint(1L, ComplaintStatus.IN_PROGRESS, null), complaint(4L, ComplaintStatus.OPEN, null)));
+        when(complaintRepository.lockAllByIdIn(List.of(7L))).thenReturn(List.of());
+
+        ComplaintBatchResponse response = complaintBatchService.updateIncident(1L, ComplaintStatus.RESOLVED, "Outage fixed");
+
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(complaintRepository).updateStatusAll(eq(List.of(1L, 4L)), eq(ComplaintStatus.RESOLVED), any());
+        verify(complaintRepository).updateAdminResponseAll(eq(List.of(1L, 4L)), eq("Outage fixed"), any());
+    }
+
+    @Test
+    void testUpdateIncidentWithoutPendingComplaints() {
+        when(complaintRepository.findPendingIdsByIncidentId(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(complaintRepository.existsByIncidentId(1L)).thenReturn(true);
+
+        assertThat(complaintBatchService.updateIncident(1L, ComplaintStatus.RESOLVED, null).getRequested()).isZero();
+        assertThrows(ResourceNotFoundException.class,
+                () -> complaintBatchService.updateIncident(2L, ComplaintStatus.RESOLVED, null));
+        verify(complaintRepository, never()).lockAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void testInvalidRequestsRejected() {
+        ReflectionTestUtils.setField(complaintBatchService, "maxIds", 2);
+
+        assertThrows(InvalidRequestException.class, () -> complaintBatchService.updateComplaints(
+                new ComplaintBatchUpdateRequest(List.of(1L), null, null, " ")));
+        assertThrows(InvalidRequestException.class, () -> complaintBatchService.updateComplaints(
+                new ComplaintBatchUpdateRequest(List.of(1L, 2L, 3L), ComplaintStatus.CLOSED, null, null)));
+        verify(complaintRepository, never()).lockAllByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,138 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.entity.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ComplaintDispatchQueueTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private List<Long> drain(ComplaintDispatchQueue queue) {
+        List<Long> claimed = new ArrayList<>();
+        Long id;
+        while ((id = queue.claimNext(x -> true)) != null) {
+            claimed.add(id);
+        }
+        return claimed;
+    }
+
+    @Test
+    void testClaimsHighestPriorityThenOldest() {
+        ComplaintDispatchQueue queue = new ComplaintDispatchQueue();
+        queue.offer(1L, Priority.LOW, now.minusHours(3));
+        queue.offer(2L, Priority.URGENT, now.minusMinutes(1));
+        queue.offer(3L, Priority.HIGH, now.minusHours(2));
+        queue.offer(4L, Priority.HIGH, now.minusHours(1));
+        queue.offer(5L, Priority.MEDIUM, now.minusHours(5));
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 1L), drain(queue));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testReprioritiseAndRemove() {
+        ComplaintDispatchQueue queue = new ComplaintDispatchQueue();
+        queue.offer(1L, Priority.HIGH, now.minusHours(1));
+        queue.offer(2L, Priority.LOW, now.minusHours(2));
+        queue.offer(3L, Priority.MEDIUM, now.minusHours(3));
+
+        queue.offer(2L, Priority.URGENT, now.minusHours(2));
+        queue.remove(1L);
+
+        assertEquals(2, queue.size());
+        assertEquals(List.of(2L, 3L), drain(queue));
+    }
+
+    @Test
+    void testRejectedClaimsAreDropped() {
+        ComplaintDispatchQueue queue = new ComplaintDispatchQueue();
+        queue.offer(1L, Priority.URGENT, now);
+        queue.offer(2L, Priority.HIGH, now);
+
+        // Complaint 1 was already claimed on another node
+        assertEquals(2L, queue.claimNext(id -> id != 1L));
+        assertNull(queue.claimNext(id -> true));
+        assertEquals(1L, queue.getStats().get("complaint.dispatchQueue.staleDropped"));
+        assertEquals(1L, queue.getStats().get("complaint.dispatchQueue.emptyPolls"));
+    }
+
+    @Test
+    void testConcurrentAgentsNeverClaimTheSameComplaint() throws Exception {
+        ComplaintDispatchQueue queue = new ComplaintDispatchQueue();
+        int complaints = 5_000;
+        for (long id = 1; id <= complaints; id++) {
+            queue.offer(id, Priority.values()[(int) (id % 4)], now.minusSeconds(id));
+        }
+
+        Set<Long> claimedOnce = ConcurrentHashMap.newKeySet();
+        int agents = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(agents);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int count = 0;
+                Long id;
+                while ((id = queue.claimNext(claimedOnce::add)) != null) {
+                    count++;
+                    if (id % 7 == 0) {
+                        // Priority changes race with claims
+                        queue.offer(id + complaints, Priority.URGENT, now);
+                    }
+                }
+                return count;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(claimedOnce.size(), total);
+        assertEquals(0, queue.getStats().get("complaint.dispatchQueue.staleDropped"));
+    }
+
+    @Test
+    void testReloadSeedsOpenComplaints() {
+        ComplaintDispatchQueue queue = new ComplaintDispatchQueue();
+        ComplaintRepository repository = mock(ComplaintRepository.class);
+        ReflectionTestUtils.setField(queue, "complaintRepository", repository);
+        when(repository.findOpenDispatchEntries()).thenReturn(List.of(
+                entry(1L, Priority.LOW, now.minusHours(1)),
+                entry(2L, Priority.HIGH, now.minusHours(1))));
+        queue.offer(1L, Priority.URGENT, now.minusHours(1));
+
+        queue.reload();
+
+        assertEquals(new HashSet<>(List.of(2L, 1L)), new HashSet<>(drain(queue)));
+    }
+
+    private ComplaintRepository.DispatchEntry entry(Long id, Priority priority, LocalDateTime createdAt) {
+        return new ComplaintRepository.DispatchEntry() {
+            public Long getId() { return id; }
+            public Priority getPriority() { return priority; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+        };
+    }
+}
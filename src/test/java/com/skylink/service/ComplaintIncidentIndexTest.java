@@ -0,0 +1,77 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ComplaintIncidentIndexTest {
+
+    private static final String OUTAGE = "No internet since this morning, the router shows a red light and nothing loads";
+
+    private final ComplaintRepository complaintRepository = mock(ComplaintRepository.class);
+
+    private ComplaintIncidentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ComplaintIncidentIndex(32, 4, 0.6);
+        ReflectionTestUtils.setField(index, "complaintRepository", complaintRepository);
+    }
+
+    private static ComplaintRepository.IncidentDocument document(Long id, Long incidentId, String subject, String description) {
+        return new ComplaintRepository.IncidentDocument() {
+            public Long getId() { return id; }
+            public Long getIncidentId() { return incidentId; }
+            public String getSubject() { return subject; }
+            public String getDescription() { return description; }
+        };
+    }
+
+    @Test
+    void testNearDuplicatesJoinTheFirstComplaintsIncident() {
+        index.add(1L, null, index.signature("Internet down", OUTAGE));
+        Long incidentId = index.findIncident(index.signature("Internet down", OUTAGE.replace("morning", "morning!!")));
+        index.add(2L, incidentId, index.signature("Internet down", OUTAGE));
+
+        assertEquals(1L, incidentId);
+        assertEquals(1L, index.findIncident(index.signature("internet is down", OUTAGE)));
+        assertNull(index.findIncident(index.signature("Billing", "Charged twice for my plan this month")));
+        assertNull(index.findIncident(null));
+        assertEquals(3L, index.getStats().get("complaint.incidents.lookups"));
+        assertEquals(2L, index.getStats().get("complaint.incidents.matched"));
+    }
+
+    @Test
+    void testRemovedComplaintsNoLongerMatch() {
+        int[] outage = index.signature("Internet down", OUTAGE);
+        index.add(1L, null, outage);
+
+        index.remove(1L);
+
+        assertNull(index.findIncident(outage));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testReloadAddsNewDropsClosedAndTakesIncidentFromDatabase() {
+        index.add(1L, null, index.signature("Billing", "Charged twice for my plan this month"));
+        index.add(2L, null, index.signature("Internet down", OUTAGE));
+        when(complaintRepository.streamPendingIncidentDocuments()).thenReturn(Stream.of(
+                document(2L, 5L, "Internet down", OUTAGE),
+                document(3L, null, "Slow speed", "Speed drops to under 1 Mbps every evening after 8 pm")));
+
+        index.reload();
+
+        assertEquals(2, index.size());
+        assertNull(index.findIncident(index.signature("Billing", "Charged twice for my plan this month")));
+        assertEquals(5L, index.findIncident(index.signature("Internet down", OUTAGE)));
+        assertEquals(3L, index.findIncident(index.signature("Slow speed", "Speed drops to under 1 Mbps every evening after 8 pm")));
+    }
+}
@@ -0,0 +1,102 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ComplaintSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final ComplaintRepository complaintRepository = mock(ComplaintRepository.class);
+
+    private ComplaintSearchIndex newIndex() {
+        ComplaintSearchIndex index = new ComplaintSearchIndex();
+        ReflectionTestUtils.setField(index, "complaintRepository", complaintRepository);
+        ReflectionTestUtils.setField(index, "indexDir", indexDir.toString());
+        return index;
+    }
+
+    private static ComplaintRepository.SearchDocument document(Long id, String subject, String description) {
+        return new ComplaintRepository.SearchDocument() {
+            public Long getId() { return id; }
+            public String getSubject() { return subject; }
+            public String getDescription() { return description; }
+            public LocalDateTime getUpdatedAt() { return LocalDateTime.now(); }
+        };
+    }
+
+    @Test
+    void testBuildsFromDatabaseWithoutCheckpoint() {
+        when(complaintRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                document(1L, "Router issue", "Keeps rebooting"),
+                document(2L, "Billing", "Charged twice")));
+        ComplaintSearchIndex index = newIndex();
+
+        assertFalse(index.isReady());
+        index.initialize();
+
+        assertTrue(index.isReady());
+        assertEquals(1L, index.search("rebooting", 0, 10).getHits().get(0).getId());
+        verify(complaintRepository, never()).streamSearchDocumentsUpdatedSince(any());
+    }
+
+    @Test
+    void testRestartReplaysOnlyChangesSinceCheckpoint() {
+        when(complaintRepository.streamSearchDocuments()).thenReturn(Stream.of(document(1L, "Router issue", "Keeps rebooting")));
+        ComplaintSearchIndex first = newIndex();
+        first.initialize();
+        first.index(2L, "Billing", "Charged twice");
+        first.checkpoint();
+        assertTrue(Files.exists(indexDir.resolve(ComplaintSearchIndex.CHECKPOINT_FILE)));
+
+        when(complaintRepository.streamSearchDocumentsUpdatedSince(any()))
+                .thenReturn(Stream.of(document(3L, "No signal", "Outage since morning")));
+        ComplaintSearchIndex restarted = newIndex();
+        restarted.initialize();
+
+        verify(complaintRepository, times(1)).streamSearchDocuments();
+        assertEquals(3L, restarted.getStats().get("complaint.searchIndex.documents"));
+        assertEquals(2L, restarted.search("charged", 0, 10).getHits().get(0).getId());
+        assertEquals(3L, restarted.search("outage", 0, 10).getHits().get(0).getId());
+    }
+
+    @Test
+    void testCorruptCheckpointFallsBackToRebuild() throws Exception {
+        Files.write(indexDir.resolve(ComplaintSearchIndex.CHECKPOINT_FILE), new byte[] {1, 2, 3});
+        when(complaintRepository.streamSearchDocuments()).thenReturn(Stream.of(document(1L, "Router issue", "")));
+        ComplaintSearchIndex index = newIndex();
+
+        index.initialize();
+
+        assertEquals(1, index.search("router", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void testRefreshIndexesRowsUpdatedElsewhere() {
+        when(complaintRepository.streamSearchDocuments()).thenReturn(Stream.empty());
+        ComplaintSearchIndex index = newIndex();
+        index.initialize();
+        when(complaintRepository.streamSearchDocumentsUpdatedSince(any()))
+                .thenReturn(Stream.of(document(4L, "Slow speed", "Evenings only")));
+
+        index.refresh();
+
+        assertEquals(1, index.search("evenings", 0, 10).getTotalHits());
+    }
+}
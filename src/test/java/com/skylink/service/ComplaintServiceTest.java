@@ -8,7 +8,10 @@ import com.skylink.entity.Complaint;
 import com.skylink.entity.ComplaintStatus;
 import com.skylink.entity.Priority;
 import com.skylink.entity.User;
+import com.skylink.exception.InvalidRequestException;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.exception.ServiceUnavailableException;
+import com.skylink.util.InvertedIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,7 +21,9 @@ import org.mockito.MockitoAnnotations;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +36,18 @@ class ComplaintServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ComplaintDispatchQueue dispatchQueue;
+
+    @Mock
+    private ComplaintSearchIndex searchIndex;
+
+    @Mock
+    private ComplaintSlaMonitor slaMonitor;
+
+    @Mock
+    private ComplaintIncidentIndex incidentIndex;
+
     @InjectMocks
     private ComplaintService complaintService;
 
@@ -65,12 +82,56 @@ class ComplaintServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(complaintRepository.save(any(Complaint.class))).thenReturn(testComplaint);
+        when(incidentIndex.findIncident(any())).thenReturn(null);
 
         ComplaintResponse response = complaintService.createComplaint(request);
 
         assertNotNull(response);
         assertEquals("Network Issue", response.getSubject());
         assertEquals("John Doe", response.getUserName());
+        verify(searchIndex).indexAfterCommit(1L, "Network Issue", "Internet not working");
+        verify(slaMonitor).trackAfterCommit(1L, Priority.HIGH, testComplaint.getCreatedAt());
+        verify(incidentIndex).addAfterCommit(eq(1L), isNull(), any());
+        verify(complaintRepository, never()).openIncident(any());
+    }
+
+    @Test
+    void testCreateComplaintJoinsIncidentOfNearDuplicate() {
+        ComplaintRequest request = new ComplaintRequest();
+        request.setUserId(1L);
+        request.setSubject("Network Issue");
+        request.setDescription("Internet not working");
+        int[] signature = {1, 2, 3};
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(incidentIndex.signature("Network Issue", "Internet not working")).thenReturn(signature);
+        when(incidentIndex.findIncident(signature)).thenReturn(5L);
+        when(complaintRepository.save(any(Complaint.class))).thenAnswer(invocation -> {
+            Complaint saved = invocation.getArgument(0);
+            saved.setId(8L);
+            return saved;
+        });
+
+        ComplaintResponse response = complaintService.createComplaint(request);
+
+        assertEquals(5L, response.getIncidentId());
+        verify(complaintRepository).openIncident(5L);
+        verify(incidentIndex).addAfterCommit(8L, 5L, signature);
+    }
+
+    @Test
+    void testGetIncidentComplaints() {
+        testComplaint.setIncidentId(1L);
+        when(complaintRepository.findResponsesByIncidentIdAfter(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(toResponse(testComplaint), toResponse(testComplaint)));
+        when(complaintRepository.findResponsesByIncidentIdAfter(eq(2L), any(), any(), any())).thenReturn(List.of());
+
+        var page = complaintService.getIncidentComplaints(1L, null, 1);
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        assertThrows(ResourceNotFoundException.class, () -> complaintService.getIncidentComplaints(2L, null, 50));
+        // Past the last page is an empty page, not a missing incident
+        assertTrue(complaintService.getIncidentComplaints(2L, page.getNextCursor(), 50).getItems().isEmpty());
     }
 
     @Test
@@ -86,32 +147,43 @@ class ComplaintServiceTest {
 
     @Test
     void testGetUserComplaints() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(complaintRepository.findByUserOrderByCreatedAtDesc(testUser))
-                .thenReturn(Collections.singletonList(testComplaint));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(complaintRepository.findResponsesByUserId(1L))
+                .thenReturn(Collections.singletonList(toResponse(testComplaint)));
 
         var complaints = complaintService.getUserComplaints(1L);
 
         assertEquals(1, complaints.size());
         assertEquals("Network Issue", complaints.get(0).getSubject());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetUserComplaints_UserNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> complaintService.getUserComplaints(99L));
+        verify(complaintRepository, never()).findResponsesByUserId(any());
     }
 
     @Test
     void testGetAllComplaints() {
-        when(complaintRepository.findAll()).thenReturn(Collections.singletonList(testComplaint));
+        when(complaintRepository.findResponsesAfter(any(), any(), any()))
+                .thenReturn(Collections.singletonList(toResponse(testComplaint)));
 
-        var complaints = complaintService.getAllComplaints();
+        var complaints = complaintService.getAllComplaints(null, 50).getItems();
 
         assertEquals(1, complaints.size());
     }
 
     @Test
     void testGetComplaintById() {
-        when(complaintRepository.findById(1L)).thenReturn(Optional.of(testComplaint));
+        when(complaintRepository.findResponseById(1L)).thenReturn(Optional.of(toResponse(testComplaint)));
 
         ComplaintResponse response = complaintService.getComplaintById(1L);
 
         assertEquals("Network Issue", response.getSubject());
+        assertEquals("john@example.com", response.getUserEmail());
     }
 
     @Test
@@ -123,6 +195,72 @@ class ComplaintServiceTest {
 
         assertEquals(ComplaintStatus.RESOLVED, response.getStatus());
         assertEquals("Fixed", response.getAdminResponse());
+        verify(dispatchQueue).remove(1L);
+        verify(slaMonitor).untrack(1L);
+        verify(incidentIndex).remove(1L);
+        verify(slaMonitor).recordResolutionAfterCommit(eq(Priority.HIGH), eq(testComplaint.getCreatedAt()), any());
+    }
+
+    @Test
+    void testClosingResolvedComplaintDoesNotRecordResolutionAgain() {
+        testComplaint.setStatus(ComplaintStatus.RESOLVED);
+        testComplaint.setResolvedAt(LocalDateTime.now());
+        when(complaintRepository.findById(1L)).thenReturn(Optional.of(testComplaint));
+        when(complaintRepository.save(any(Complaint.class))).thenReturn(testComplaint);
+
+        complaintService.updateComplaintStatus(1L, ComplaintStatus.CLOSED, null);
+
+        verify(slaMonitor).untrack(1L);
+        verify(slaMonitor, never()).recordResolutionAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    void testSlaClockRestartsOnlyIfNotBreached() {
+        testComplaint.setSlaBreachedAt(LocalDateTime.now());
+        when(complaintRepository.findById(1L)).thenReturn(Optional.of(testComplaint));
+        when(complaintRepository.save(any(Complaint.class))).thenReturn(testComplaint);
+
+        complaintService.updateComplaintPriority(1L, Priority.URGENT);
+        testComplaint.setSlaBreachedAt(null);
+        complaintService.updateComplaintPriority(1L, Priority.LOW);
+
+        verify(slaMonitor, times(1)).trackAfterCommit(any(), any(), any());
+        verify(slaMonitor).trackAfterCommit(1L, Priority.LOW, testComplaint.getCreatedAt());
+    }
+
+    @Test
+    void testReopenedComplaintReturnsToDispatchQueue() {
+        testComplaint.setAssignedAgentId(7L);
+        when(complaintRepository.findById(1L)).thenReturn(Optional.of(testComplaint));
+        when(complaintRepository.save(any(Complaint.class))).thenReturn(testComplaint);
+
+        complaintService.updateComplaintStatus(1L, ComplaintStatus.OPEN, null);
+
+        assertNull(testComplaint.getAssignedAgentId());
+        verify(dispatchQueue).offerAfterCommit(1L, Priority.HIGH, testComplaint.getCreatedAt());
+    }
+
+    @Test
+    void testClaimNextComplaint() {
+        ComplaintResponse claimed = toResponse(testComplaint);
+        when(complaintRepository.claim(eq(1L), eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        when(complaintRepository.findResponseById(1L)).thenReturn(Optional.of(claimed));
+        when(dispatchQueue.claimNext(any())).thenAnswer(invocation ->
+                invocation.<Predicate<Long>>getArgument(0).test(1L) ? 1L : null);
+
+        Optional<ComplaintResponse> response = complaintService.claimNextComplaint(7L);
+
+        assertTrue(response.isPresent());
+        assertSame(claimed, response.get());
+        verify(complaintRepository).claim(eq(1L), eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testClaimNextComplaint_QueueEmpty() {
+        when(dispatchQueue.claimNext(any())).thenReturn(null);
+
+        assertTrue(complaintService.claimNextComplaint(7L).isEmpty());
+        verify(complaintRepository, never()).findResponseById(any());
     }
 
     @Test
@@ -137,13 +275,53 @@ class ComplaintServiceTest {
 
     @Test
     void testSearchComplaints() {
-        when(complaintRepository.searchByKeyword("Network"))
-                .thenReturn(Arrays.asList(testComplaint));
+        Complaint other = new Complaint();
+        other.setId(2L);
+        other.setUser(testUser);
+        other.setSubject("Network slow");
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("Network", 0, 2)).thenReturn(new InvertedIndex.SearchResult(
+                List.of(new InvertedIndex.Hit(2L, 1.5), new InvertedIndex.Hit(1L, 0.7)), 3));
+        when(complaintRepository.findResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(Arrays.asList(toResponse(testComplaint), toResponse(other)));
+
+        var page = complaintService.searchComplaints("Network", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("Network slow", page.getItems().get(0).getSubject());
+        assertEquals("Network Issue", page.getItems().get(1).getSubject());
+        assertEquals("2", page.getNextCursor());
+    }
 
-        var complaints = complaintService.searchComplaints("Network");
+    @Test
+    void testSearchComplaintsLastPage() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("Network", 2, 2)).thenReturn(new InvertedIndex.SearchResult(
+                List.of(new InvertedIndex.Hit(1L, 0.7), new InvertedIndex.Hit(9L, 0.2)), 4));
+        when(complaintRepository.findResponsesByIdIn(List.of(1L, 9L)))
+                .thenReturn(List.of(toResponse(testComplaint)));
+
+        var page = complaintService.searchComplaints("Network", "2", 2);
+
+        // Complaint 9 was deleted after it was indexed
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
 
-        assertEquals(1, complaints.size());
-        assertEquals("Network Issue", complaints.get(0).getSubject());
+    @Test
+    void testSearchComplaintsRejectsInvalidCursor() {
+        when(searchIndex.isReady()).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> complaintService.searchComplaints("Network", "abc", 10));
+        assertThrows(InvalidRequestException.class, () -> complaintService.searchComplaints("Network", "-10", 10));
+        verify(searchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testSearchComplaintsWhileIndexLoading() {
+        when(searchIndex.isReady()).thenReturn(false);
+
+        assertThrows(ServiceUnavailableException.class, () -> complaintService.searchComplaints("Network", null, 10));
     }
 
     @Test
@@ -159,4 +337,11 @@ class ComplaintServiceTest {
 
         assertEquals(3, complaintService.getComplaintsByStatus1(ComplaintStatus.IN_PROGRESS));
     }
+
+    private ComplaintResponse toResponse(Complaint complaint) {
+        return new ComplaintResponse(complaint.getId(), complaint.getUser().getId(), complaint.getUser().getName(),
+                complaint.getUser().getEmail(), complaint.getSubject(), complaint.getDescription(),
+                complaint.getStatus(), complaint.getPriority(), complaint.getAdminResponse(),
+                complaint.getCreatedAt(), complaint.getUpdatedAt(), complaint.getResolvedAt());
+    }
 }
@@ -0,0 +1,161 @@
+package com.skylink.service;
+
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.dto.ComplaintSlaResponse;
+import com.skylink.entity.Complaint;
+import com.skylink.entity.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ComplaintSlaMonitorTest {
+
+    private final ComplaintRepository complaintRepository = mock(ComplaintRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private ComplaintSlaMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        // URGENT 1 h, HIGH 2 h, MEDIUM 3 h, LOW 4 h
+        monitor = new ComplaintSlaMonitor(10, 3_600_000L, 7_200_000L, 10_800_000L, 14_400_000L, 30);
+        ReflectionTestUtils.setField(monitor, "complaintRepository", complaintRepository);
+        ReflectionTestUtils.setField(monitor, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(monitor, "transactionTemplate", transactionTemplate);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static List<Complaint> complaints(Long... ids) {
+        return Stream.of(ids).map(id -> {
+            Complaint complaint = new Complaint();
+            complaint.setId(id);
+            return complaint;
+        }).toList();
+    }
+
+    private void tickPastDeadlines() throws InterruptedException {
+        Thread.sleep(30);
+        monitor.tick();
+    }
+
+    @Test
+    void testBreachIsEscalatedOnce() throws InterruptedException {
+        when(complaintRepository.lockUnbreachedByIdIn(List.of(1L))).thenReturn(complaints(1L));
+        monitor.track(1L, Priority.URGENT, now.minusHours(2));
+        monitor.track(2L, Priority.LOW, now.minusHours(2));
+
+        tickPastDeadlines();
+
+        verify(complaintRepository).markSlaBreached(eq(List.of(1L)), any());
+
+        ArgumentCaptor<ComplaintSlaBreachedEvent> event = ArgumentCaptor.forClass(ComplaintSlaBreachedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getComplaintId());
+        assertEquals(Priority.URGENT, event.getValue().getPriority());
+        assertEquals(1, monitor.size());
+        assertEquals(1L, monitor.getStats().get("complaint.sla.escalated"));
+    }
+
+    @Test
+    void testBreachAlreadyRecordedElsewhereIsNotPublished() throws InterruptedException {
+        when(complaintRepository.lockUnbreachedByIdIn(List.of(1L, 2L))).thenReturn(complaints(2L));
+        monitor.track(1L, Priority.URGENT, now.minusHours(2));
+        monitor.track(2L, Priority.URGENT, now.minusHours(2));
+
+        tickPastDeadlines();
+
+        ArgumentCaptor<ComplaintSlaBreachedEvent> event = ArgumentCaptor.forClass(ComplaintSlaBreachedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2L, event.getValue().getComplaintId());
+        verify(complaintRepository).markSlaBreached(eq(List.of(2L)), any());
+    }
+
+    @Test
+    void testBreachesAreMarkedInChunks() throws InterruptedException {
+        ReflectionTestUtils.setField(monitor, "breachChunkSize", 2);
+        when(complaintRepository.lockUnbreachedByIdIn(any())).thenReturn(List.of());
+        for (long id = 1; id <= 5; id++) {
+            monitor.track(id, Priority.URGENT, now.minusHours(2));
+        }
+
+        tickPastDeadlines();
+
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(complaintRepository, never()).markSlaBreached(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUntrackedAndReprioritisedComplaints() throws InterruptedException {
+        monitor.track(1L, Priority.URGENT, now.minusHours(2));
+        monitor.untrack(1L);
+        monitor.track(2L, Priority.URGENT, now.minusMinutes(90));
+        monitor.track(2L, Priority.HIGH, now.minusMinutes(90));
+
+        tickPastDeadlines();
+
+        verify(complaintRepository, never()).lockUnbreachedByIdIn(any());
+        assertEquals(1, monitor.size());
+    }
+
+    @Test
+    void testReportQuantilesPerPriority() {
+        for (int minutes = 1; minutes <= 100; minutes++) {
+            monitor.recordResolution(Priority.HIGH, now.minusMinutes(minutes), now);
+        }
+        monitor.track(5L, Priority.HIGH, now);
+
+        ComplaintSlaResponse high = monitor.getReport().stream()
+                .filter(r -> r.getPriority() == Priority.HIGH).findFirst().orElseThrow();
+
+        assertEquals(120, high.getTargetMinutes());
+        assertEquals(100, high.getResolved());
+        assertEquals(50, high.getP50Minutes(), 1.0);
+        assertEquals(90, high.getP90Minutes(), 1.0);
+        assertEquals(100, high.getMaxMinutes(), 0.01);
+        assertEquals(1, high.getOpenTracked());
+        assertNull(monitor.getReport().get(0).getP50Minutes());
+    }
+
+    @Test
+    void testReloadRestoresTimersAndHistory() {
+        ComplaintRepository.SlaTimer timer = mock(ComplaintRepository.SlaTimer.class);
+        when(timer.getId()).thenReturn(7L);
+        when(timer.getPriority()).thenReturn(Priority.MEDIUM);
+        when(timer.getCreatedAt()).thenReturn(now);
+        ComplaintRepository.ResolutionTime resolution = mock(ComplaintRepository.ResolutionTime.class);
+        when(resolution.getPriority()).thenReturn(Priority.LOW);
+        when(resolution.getCreatedAt()).thenReturn(now.minusHours(5));
+        when(resolution.getResolvedAt()).thenReturn(now);
+        ComplaintRepository.PriorityCount breaches = mock(ComplaintRepository.PriorityCount.class);
+        when(breaches.getPriority()).thenReturn(Priority.LOW);
+        when(breaches.getTotal()).thenReturn(3L);
+        when(complaintRepository.findUnbreachedSlaTimers()).thenReturn(List.of(timer));
+        when(complaintRepository.streamResolutionTimesSince(any())).thenReturn(Stream.of(resolution));
+        when(complaintRepository.countSlaBreachesSince(any())).thenReturn(List.of(breaches));
+
+        monitor.reload();
+
+        ComplaintSlaResponse low = monitor.getReport().get(Priority.LOW.ordinal());
+        assertEquals(1, monitor.size());
+        assertEquals(1, low.getResolved());
+        assertEquals(300, low.getP50Minutes(), 3.0);
+        assertEquals(3, low.getBreaches());
+    }
+}
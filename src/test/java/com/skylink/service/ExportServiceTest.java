@@ -0,0 +1,109 @@
+package com.skylink.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.skylink.dao.ComplaintRepository;
+import com.skylink.dao.SubscriptionRepository;
+import com.skylink.dao.UserRepository;
+import com.skylink.dto.ComplaintResponse;
+import com.skylink.dto.SubscriptionResponse;
+import com.skylink.dto.UserResponse;
+import com.skylink.entity.ComplaintStatus;
+import com.skylink.entity.Priority;
+import com.skylink.entity.Role;
+import com.skylink.entity.SubscriptionStatus;
+import com.skylink.exception.InvalidRequestException;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ComplaintRepository complaintRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private ExportService exportService;
+
+    private final LocalDateTime created = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    @Test
+    void testExportUsersAsNdjsonWritesOneObjectPerLine() throws Exception {
+        when(userRepository.streamAllResponses()).thenReturn(Stream.of(
+                new UserResponse(1L, "Alice", "alice@example.com", "9876543210", Role.CUSTOMER, true, created, created),
+                new UserResponse(2L, "Bob", "bob@example.com", "9876543211", Role.ADMIN, false, created, created)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportUsers(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("email").asText()).isEqualTo("alice@example.com");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-03-01T09:30:00");
+        assertThat(objectMapper.readTree(lines[1]).get("role").asText()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void testExportSubscriptionsAsCsvWritesHeaderAndRows() throws Exception {
+        when(subscriptionRepository.streamAllResponses()).thenReturn(Stream.of(
+                new SubscriptionResponse(5L, 1L, "Alice", "alice@example.com", 2L, "Basic", BigDecimal.valueOf(499),
+                        created, created.plusDays(30), SubscriptionStatus.ACTIVE, created, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportSubscriptions(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines[0]).isEqualTo("id,userId,userName,userEmail,planId,planName,planPrice,startDate,endDate,status,createdAt,updatedAt");
+        assertThat(lines[1]).isEqualTo("5,1,Alice,alice@example.com,2,Basic,499,2024-03-01T09:30,2024-03-31T09:30,ACTIVE,2024-03-01T09:30,");
+    }
+
+    @Test
+    void testCsvQuotesSpecialCharactersAndNeutralisesFormulas() throws Exception {
+        when(complaintRepository.streamAllResponses()).thenReturn(Stream.of(
+                new ComplaintResponse(9L, 1L, "Alice", "alice@example.com", "=HYPERLINK(\"x\")", "slow, then \"down\"\nagain",
+                        ComplaintStatus.OPEN, Priority.HIGH, null, created, created, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportComplaints(ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains(",\"'=HYPERLINK(\"\"x\"\")\",");
+        assertThat(csv).contains(",\"slow, then \"\"down\"\"\nagain\",OPEN,HIGH,,");
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() {
+        assertThat(ExportFormat.fromParameter("CSV")).isEqualTo(ExportFormat.CSV);
+        assertThrows(InvalidRequestException.class, () -> ExportFormat.fromParameter("xml"));
+    }
+}
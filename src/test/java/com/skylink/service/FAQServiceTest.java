@@ -64,9 +64,9 @@ class FAQServiceTest {
 
     @Test
     void getAllFAQs_ShouldReturnListOfFAQResponses() {
-        when(faqRepository.findAll()).thenReturn(Arrays.asList(faq));
+        when(faqRepository.findPageAfter(any(), any(), any())).thenReturn(Arrays.asList(faq));
 
-        List<FAQResponse> responses = faqService.getAllFAQs();
+        List<FAQResponse> responses = faqService.getAllFAQs(null, 50).getItems();
 
         assertEquals(1, responses.size());
         assertEquals("What is Skylink?", responses.get(0).getQuestion());
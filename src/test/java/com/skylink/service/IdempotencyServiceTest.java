@@ -0,0 +1,190 @@
+package com.skylink.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.skylink.dao.IdempotencyRecordRepository;
+import com.skylink.dto.SubscriptionRequest;
+import com.skylink.dto.SubscriptionResponse;
+import com.skylink.entity.IdempotencyRecord;
+import com.skylink.exception.IdempotencyConflictException;
+import com.skylink.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/subscriptions:john@example.com";
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyService idempotencyService;
+    private SubscriptionRequest request;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicReference<String> attemptedRequestHash = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        idempotencyService = new IdempotencyService(repository, objectMapper, transactionTemplate, 100, 60_000L, 60_000L);
+        request = new SubscriptionRequest();
+        request.setUserId(1L);
+        request.setPlanId(2L);
+    }
+
+    private Supplier<ResponseEntity<SubscriptionResponse>> createAction() {
+        return () -> {
+            executions.incrementAndGet();
+            SubscriptionResponse response = new SubscriptionResponse();
+            response.setId(10L);
+            response.setUserId(1L);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        };
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    // Another request already holds the key; remember the hash we tried to store
+    private void rejectReservationAsDuplicate() {
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            attemptedRequestHash.set(invocation.<IdempotencyRecord>getArgument(0).getRequestHash());
+            throw new DataIntegrityViolationException("duplicate");
+        });
+    }
+
+    private IdempotencyRecord reservation(Long id) {
+        IdempotencyRecord record = new IdempotencyRecord("hash", "request", LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+        record.setId(id);
+        return record;
+    }
+
+    @Test
+    void testWithoutKeyRunsActionDirectly() {
+        ResponseEntity<SubscriptionResponse> response =
+                idempotencyService.execute(SCOPE, null, request, SubscriptionResponse.class, createAction());
+
+        assertEquals(201, response.getStatusCode().value());
+        assertEquals(1, executions.get());
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    void testRetryIsReplayedFromMemory() {
+        runTransactionsInline();
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenReturn(reservation(5L));
+        when(repository.complete(eq(5L), eq(201), anyString())).thenReturn(1);
+
+        idempotencyService.execute(SCOPE, "key-1", request, SubscriptionResponse.class, createAction());
+        ResponseEntity<SubscriptionResponse> replayed =
+                idempotencyService.execute(SCOPE, "key-1", request, SubscriptionResponse.class, createAction());
+
+        assertEquals(1, executions.get());
+        assertEquals(201, replayed.getStatusCode().value());
+        assertEquals(10L, replayed.getBody().getId());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        assertEquals(1L, idempotencyService.getStats().get("idempotency.replays"));
+    }
+
+    @Test
+    void testRetryOnAnotherNodeIsReplayedFromStoredResponse() {
+        rejectReservationAsDuplicate();
+        when(repository.findByKeyHash(anyString())).thenAnswer(invocation -> {
+            IdempotencyRecord stored = reservation(5L);
+            stored.setRequestHash(attemptedRequestHash.get());
+            stored.setResponseStatus(201);
+            stored.setResponseBody("{\"id\":10,\"userId\":1}");
+            return Optional.of(stored);
+        });
+
+        ResponseEntity<SubscriptionResponse> replayed =
+                idempotencyService.execute(SCOPE, "key-1", request, SubscriptionResponse.class, createAction());
+
+        assertEquals(0, executions.get());
+        assertEquals(201, replayed.getStatusCode().value());
+        assertEquals(10L, replayed.getBody().getId());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        runTransactionsInline();
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenReturn(reservation(5L));
+        when(repository.complete(eq(5L), eq(201), anyString())).thenReturn(1);
+        idempotencyService.execute(SCOPE, "key-1", request, SubscriptionResponse.class, createAction());
+
+        SubscriptionRequest otherPlan = new SubscriptionRequest();
+        otherPlan.setUserId(1L);
+        otherPlan.setPlanId(3L);
+
+        assertThrows(InvalidRequestException.class,
+                () -> idempotencyService.execute(SCOPE, "key-1", otherPlan, SubscriptionResponse.class, createAction()));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testRetryWhileFirstRequestInFlightIsConflict() {
+        rejectReservationAsDuplicate();
+        when(repository.findByKeyHash(anyString())).thenAnswer(invocation -> {
+            IdempotencyRecord pending = reservation(5L);
+            pending.setRequestHash(attemptedRequestHash.get());
+            return Optional.of(pending);
+        });
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute(SCOPE, "key-1", request, SubscriptionResponse.class, createAction()));
+        assertEquals(0, executions.get());
+        verify(repository, never()).release(any());
+    }
+
+    @Test
+    void testFailedActionReleasesKey() {
+        runTransactionsInline();
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenReturn(reservation(5L));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(SCOPE, "key-1", request,
+                SubscriptionResponse.class, () -> {
+                    throw new IllegalStateException("User already has an active subscription");
+                }));
+
+        verify(repository).release(5L);
+        verify(repository, never()).complete(any(), anyInt(), any());
+    }
+
+    @Test
+    void testOverlongKeyIsRejected() {
+        String key = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+        assertThrows(InvalidRequestException.class,
+                () -> idempotencyService.execute(SCOPE, key, request, SubscriptionResponse.class, createAction()));
+        verifyNoInteractions(repository);
+    }
+}
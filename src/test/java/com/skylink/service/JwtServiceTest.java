@@ -2,7 +2,9 @@ package com.skylink.service;
 
 import com.skylink.entity.User;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 
 import com.skylink.entity.Role;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,8 @@ import org.mockito.Mockito;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtServiceTest {
@@ -46,6 +50,9 @@ class JwtServiceTest {
 
         String role = jwtService.extractRole(token);
         assertEquals("CUSTOMER", role);
+
+        Integer tokenVersion = jwtService.extractTokenVersion(jwtService.parseClaims(token));
+        assertEquals(0, tokenVersion);
     }
 
     @Test
@@ -99,4 +106,58 @@ class JwtServiceTest {
                 () -> jwtService.validateToken(token, userDetails));
     }
 
+    @Test
+    void parseClaims_cachesVerifiedToken() {
+        String token = jwtService.generateToken(testUser);
+
+        jwtService.parseClaims(token);
+        jwtService.extractUsername(token);
+        jwtService.extractUserId(token);
+
+        Map<String, Long> stats = jwtService.getStats();
+        assertEquals(1L, stats.get("jwt.claimsCache.misses"));
+        assertEquals(2L, stats.get("jwt.claimsCache.hits"));
+    }
+
+    @Test
+    void parseClaims_rejectsTamperedTokenEvenWhenOriginalIsCached() {
+        String token = jwtService.generateToken(testUser);
+        jwtService.parseClaims(token);
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(tampered));
+    }
+
+    @Test
+    void validateClaims_usesAlreadyParsedClaims() {
+        String token = jwtService.generateToken(testUser);
+        Claims claims = jwtService.parseClaims(token);
+
+        UserDetails userDetails = Mockito.mock(UserDetails.class);
+        Mockito.when(userDetails.getUsername()).thenReturn("swetha@example.com");
+
+        assertTrue(jwtService.validateClaims(claims, userDetails));
+    }
+
+    @Test
+    void testAccessAndRefreshTokensAreDistinguished() {
+        Claims access = jwtService.parseClaims(jwtService.generateToken(testUser));
+        Claims refresh = jwtService.parseClaims(jwtService.generateRefreshToken(testUser));
+
+        assertFalse(jwtService.isRefreshToken(access));
+        assertTrue(jwtService.isRefreshToken(refresh));
+        assertEquals("swetha@example.com", refresh.getSubject());
+        assertTrue(refresh.getExpiration().after(access.getExpiration()));
+    }
+
+    @Test
+    void testEveryTokenHasUniqueId() {
+        String first = jwtService.extractTokenId(jwtService.parseClaims(jwtService.generateToken(testUser)));
+        String second = jwtService.extractTokenId(jwtService.parseClaims(jwtService.generateToken(testUser)));
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+    }
 }
@@ -0,0 +1,49 @@
+package com.skylink.service;
+
+import com.skylink.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void testEmailLimitIsCaseInsensitive() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 2, 1, 100, 100);
+
+        limiter.checkLogin("john@example.com", "10.0.0.1");
+        limiter.checkLogin("JOHN@example.com", "10.0.0.2");
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLogin("john@example.com", "10.0.0.3"));
+
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(1L, limiter.getStats().get("auth.rateLimit.rejectedByEmail"));
+    }
+
+    @Test
+    void testIpLimitAppliesAcrossEmails() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 100, 100, 2, 1);
+
+        limiter.checkLogin("a@example.com", "10.0.0.1");
+        limiter.checkLogin("b@example.com", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("c@example.com", "10.0.0.1"));
+
+        Map<String, Long> stats = limiter.getStats();
+        assertEquals(1L, stats.get("auth.rateLimit.rejectedByIp"));
+        assertEquals(2L, stats.get("auth.rateLimit.allowed"));
+        // The rejected attempt never reached the email bucket
+        assertEquals(2L, stats.get("auth.rateLimit.trackedEmails"));
+    }
+
+    @Test
+    void testDisabledLimiterAllowsEverything() {
+        LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("john@example.com", "10.0.0.1");
+        }
+        assertEquals(0L, limiter.getStats().get("auth.rateLimit.rejectedByEmail"));
+    }
+}
@@ -19,12 +19,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import com.skylink.dao.PlanRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.PlanRequest;
 import com.skylink.dto.PlanResponse;
 import com.skylink.entity.Plan;
 import com.skylink.exception.ResourceNotFoundException;
+import com.skylink.util.KeysetCursor;
 
 @ExtendWith(MockitoExtension.class)
 class PlanServiceTest {
@@ -107,14 +110,16 @@ class PlanServiceTest {
 
     @Test
     void testGetAllPlans() {
-        when(planRepository.findAll()).thenReturn(List.of(activePlan, inactivePlan));
+        when(planRepository.findPageAfter(any(), any(), any())).thenReturn(List.of(inactivePlan, activePlan));
 
-        List<PlanResponse> responses = planService.getAllPlans();
+        CursorPage<PlanResponse> page = planService.getAllPlans(null, 50);
 
-        assertThat(responses).hasSize(2);
-        assertThat(responses).extracting(PlanResponse::getName)
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getItems()).extracting(PlanResponse::getName)
             .contains("Basic Plan", "Premium Plan");
-        verify(planRepository).findAll();
+        assertThat(page.hasNext()).isFalse();
+        verify(planRepository).findPageAfter(KeysetCursor.START.getCreatedAt(), 0L, PageRequest.of(0, 51));
+        verify(planRepository, never()).findAll();
     }
 
     @Test
@@ -311,12 +316,12 @@ class PlanServiceTest {
 
     @Test
     void testGetAllPlans_EmptyList() {
-        when(planRepository.findAll()).thenReturn(List.of());
+        when(planRepository.findPageAfter(any(), any(), any())).thenReturn(List.of());
 
-        List<PlanResponse> responses = planService.getAllPlans();
+        CursorPage<PlanResponse> page = planService.getAllPlans(null, 50);
 
-        assertThat(responses).isEmpty();
-        verify(planRepository).findAll();
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
     }
 
     @Test
@@ -0,0 +1,70 @@
+package com.skylink.service;
+
+import com.skylink.entity.Role;
+import com.skylink.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final User user = new User("John Doe", "john@example.com", "1234567890", "password", Role.CUSTOMER);
+
+    @Test
+    void testPutGetAndInvalidate() {
+        PrincipalCache cache = new PrincipalCache(10, 60_000L);
+
+        cache.put("john@example.com", user);
+        assertSame(user, cache.get("john@example.com"));
+
+        cache.invalidate("john@example.com");
+        assertNull(cache.get("john@example.com"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        PrincipalCache cache = new PrincipalCache(10, 0L);
+
+        cache.put("john@example.com", user);
+
+        assertNull(cache.get("john@example.com"));
+    }
+
+    @Test
+    void testInvalidateAgainAfterTransactionCompletes() {
+        PrincipalCache cache = new PrincipalCache(10, 60_000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("john@example.com");
+            // A concurrent reader re-caches the row before the writer commits
+            cache.put("john@example.com", user);
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cache.get("john@example.com"));
+    }
+
+    @Test
+    void testStatsIncludeLoadLatency() {
+        PrincipalCache cache = new PrincipalCache(10, 60_000L);
+        cache.recordLoad(2_000_000L);
+        cache.recordLoad(4_000_000L);
+        cache.get("missing@example.com");
+
+        Map<String, Long> stats = cache.getStats();
+
+        assertEquals(2L, stats.get("user.principalCache.loads"));
+        assertEquals(3_000L, stats.get("user.principalCache.avgLoadMicros"));
+        assertEquals(4_000L, stats.get("user.principalCache.maxLoadMicros"));
+        assertEquals(1L, stats.get("user.principalCache.misses"));
+    }
+}
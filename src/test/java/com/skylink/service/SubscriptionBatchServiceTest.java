@@ -0,0 +1,177 @@
+package com.skylink.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skylink.dao.PlanRepository;
+import com.skylink.dao.SubscriptionRepository;
+import com.skylink.dto.SubscriptionBatchResponse;
+import com.skylink.dto.SubscriptionBatchResponse.Outcome;
+import com.skylink.entity.Plan;
+import com.skylink.entity.Subscription;
+import com.skylink.entity.SubscriptionStatus;
+import com.skylink.entity.User;
+import com.skylink.exception.InvalidRequestException;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionBatchServiceTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private SubscriptionExpiryIndex expiryIndex;
+
+    @Mock
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SubscriptionBatchService subscriptionBatchService;
+
+    private Plan testPlan;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        testPlan = new Plan();
+        testPlan.setId(1L);
+        testPlan.setDurationInDays(30);
+    }
+
+    private Subscription subscription(Long id, Long userId, SubscriptionStatus status) {
+        User user = new User("User " + userId, "user" + userId + "@example.com", "90000000" + userId, "password", null);
+        user.setId(userId);
+        Subscription subscription = new Subscription(user, testPlan, LocalDateTime.now().minusDays(40), LocalDateTime.now().minusDays(10));
+        subscription.setId(id);
+        subscription.setStatus(status);
+        return subscription;
+    }
+
+    private SubscriptionRepository.ActiveHolder holder(Long userId, Long id) {
+        return new SubscriptionRepository.ActiveHolder() {
+            public Long getUserId() { return userId; }
+            public Long getId() { return id; }
+        };
+    }
+
+    @Test
+    void testRenewSubscriptions() {
+        Subscription blocked = subscription(2L, 1L, SubscriptionStatus.EXPIRED);
+        Subscription lapsed = subscription(3L, 2L, SubscriptionStatus.EXPIRED);
+        Subscription sameUserLater = subscription(4L, 2L, SubscriptionStatus.CANCELLED);
+        when(subscriptionRepository.lockAllByIdIn(List.of(2L, 3L, 4L, 99L))).thenReturn(List.of(blocked, lapsed, sameUserLater));
+        when(subscriptionRepository.findActiveHolders(Set.of(1L, 2L))).thenReturn(List.of(holder(1L, 1L)));
+        when(planRepository.findAllById(Set.of(1L))).thenReturn(List.of(testPlan));
+
+        SubscriptionBatchResponse response = subscriptionBatchService.renewSubscriptions(List.of(2L, 3L, 4L, 99L));
+
+        assertThat(response.getResults()).containsExactly(
+                entry(2L, Outcome.CONFLICT),
+                entry(3L, Outcome.RENEWED),
+                entry(4L, Outcome.CONFLICT),
+                entry(99L, Outcome.NOT_FOUND));
+        assertThat(response.getSucceeded()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> renewed = ArgumentCaptor.forClass(Collection.class);
+        verify(subscriptionRepository).renewAll(renewed.capture(), any(), any());
+        assertThat(renewed.getValue()).containsExactly(3L);
+        verify(expiryIndex).scheduleAfterCommit(any(), any());
+        verify(activeSubscriptionCache).invalidate(2L);
+    }
+
+    @Test
+    void testCancelSubscriptions() {
+        Subscription active = subscription(1L, 1L, SubscriptionStatus.ACTIVE);
+        Subscription cancelled = subscription(5L, 3L, SubscriptionStatus.CANCELLED);
+        when(subscriptionRepository.lockAllByIdIn(List.of(1L, 5L, 99L))).thenReturn(List.of(active, cancelled));
+
+        SubscriptionBatchResponse response = subscriptionBatchService.cancelSubscriptions(List.of(1L, 5L, 99L, 1L));
+
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getResults().get(1L)).isEqualTo(Outcome.CANCELLED);
+        assertThat(response.getResults().get(5L)).isEqualTo(Outcome.ALREADY_CANCELLED);
+        assertThat(response.getResults().get(99L)).isEqualTo(Outcome.NOT_FOUND);
+        verify(subscriptionRepository).cancelAll(eqIds(1L), any());
+        verify(expiryIndex).cancelAfterCommit(1L);
+        verify(activeSubscriptionCache).invalidate(1L);
+    }
+
+    @Test
+    void testIdsAreProcessedInChunks() {
+        ReflectionTestUtils.setField(subscriptionBatchService, "chunkSize", 2);
+        when(subscriptionRepository.lockAllByIdIn(anyCollection())).thenReturn(List.of());
+
+        SubscriptionBatchResponse response = subscriptionBatchService.cancelSubscriptions(List.of(1L, 2L, 3L, 4L, 5L));
+
+        verify(subscriptionRepository, times(3)).lockAllByIdIn(anyCollection());
+        verify(transactionTemplate, times(3)).execute(any());
+        assertThat(response.getResults()).hasSize(5).containsValue(Outcome.NOT_FOUND).doesNotContainValue(Outcome.CANCELLED);
+    }
+
+    @Test
+    void testChunkRetriedAfterConcurrentActivation() {
+        Subscription lapsed = subscription(3L, 2L, SubscriptionStatus.EXPIRED);
+        when(subscriptionRepository.lockAllByIdIn(List.of(3L))).thenReturn(List.of(lapsed));
+        when(subscriptionRepository.findActiveHolders(Set.of(2L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(holder(2L, 7L)));
+        when(planRepository.findAllById(Set.of(1L))).thenReturn(List.of(testPlan));
+        when(subscriptionRepository.renewAll(anyCollection(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'active_user_id'"));
+
+        SubscriptionBatchResponse response = subscriptionBatchService.renewSubscriptions(List.of(3L));
+
+        assertThat(response.getResults().get(3L)).isEqualTo(Outcome.CONFLICT);
+        verify(subscriptionRepository, times(1)).renewAll(anyCollection(), any(), any());
+    }
+
+    @Test
+    void testTooManyIdsRejected() {
+        ReflectionTestUtils.setField(subscriptionBatchService, "maxIds", 3);
+        List<Long> ids = LongStream.rangeClosed(1, 4).boxed().collect(Collectors.toList());
+
+        assertThrows(InvalidRequestException.class, () -> subscriptionBatchService.renewSubscriptions(ids));
+        verify(subscriptionRepository, never()).lockAllByIdIn(anyCollection());
+    }
+
+    private static Collection<Long> eqIds(Long... ids) {
+        return argThat(actual -> List.copyOf(actual).equals(List.of(ids)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.skylink.service;
+
+import com.skylink.dao.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SubscriptionExpiryIndexTest {
+
+    private SubscriptionRepository subscriptionRepository;
+    private SubscriptionExpiryIndex expiryIndex;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        expiryIndex = new SubscriptionExpiryIndex(1L, 3_600_000L);
+        ReflectionTestUtils.setField(expiryIndex, "subscriptionRepository", subscriptionRepository);
+    }
+
+    @Test
+    void testDueSubscriptionsAreExpiredInOneBatch() throws InterruptedException {
+        when(subscriptionRepository.expireSubscriptions(anyList(), any(LocalDateTime.class))).thenReturn(2);
+        expiryIndex.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        expiryIndex.schedule(2L, LocalDateTime.now().minusSeconds(1));
+        expiryIndex.schedule(3L, LocalDateTime.now().plusMinutes(30));
+
+        Thread.sleep(5);
+        expiryIndex.tick();
+
+        verify(subscriptionRepository).expireSubscriptions(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        assertEquals(1, expiryIndex.size());
+        assertEquals(2L, expiryIndex.getStats().get("subscription.expiryIndex.expired"));
+    }
+
+    @Test
+    void testCancelledSubscriptionIsNotExpired() throws InterruptedException {
+        expiryIndex.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        expiryIndex.cancel(1L);
+
+        Thread.sleep(5);
+        expiryIndex.tick();
+
+        verify(subscriptionRepository, never()).expireSubscriptions(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testEndDatesBeyondHorizonAreLeftToReload() {
+        expiryIndex.schedule(1L, LocalDateTime.now().plusMinutes(5));
+        expiryIndex.schedule(1L, LocalDateTime.now().plusDays(30));
+
+        assertEquals(0, expiryIndex.size());
+        assertEquals(1L, expiryIndex.getStats().get("subscription.expiryIndex.beyondHorizon"));
+    }
+
+    @Test
+    void testAfterCommitChangesWaitForTheTransaction() {
+        expiryIndex.schedule(1L, LocalDateTime.now().plusMinutes(5));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            expiryIndex.scheduleAfterCommit(2L, LocalDateTime.now().plusMinutes(5));
+            expiryIndex.cancelAfterCommit(1L);
+            assertEquals(1, expiryIndex.size());
+            assertEquals(1L, expiryIndex.getStats().get("subscription.expiryIndex.scheduled"));
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // 2 was scheduled and 1 cancelled
+        assertEquals(1, expiryIndex.size());
+        assertEquals(2L, expiryIndex.getStats().get("subscription.expiryIndex.scheduled"));
+    }
+
+    @Test
+    void testReloadSchedulesActiveSubscriptionsWithinHorizon() {
+        SubscriptionRepository.ExpiryTime expiryTime = mock(SubscriptionRepository.ExpiryTime.class);
+        when(expiryTime.getId()).thenReturn(7L);
+        when(expiryTime.getEndDate()).thenReturn(LocalDateTime.now().plusMinutes(10));
+        when(subscriptionRepository.findActiveExpiryTimesBefore(any(LocalDateTime.class))).thenReturn(List.of(expiryTime));
+
+        expiryIndex.reload();
+
+        assertEquals(1, expiryIndex.size());
+    }
+}
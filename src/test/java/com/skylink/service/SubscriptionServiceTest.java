@@ -3,6 +3,7 @@ package com.skylink.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,7 +19,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.skylink.dao.PlanRepository;
 import com.skylink.dao.SubscriptionRepository;
@@ -43,6 +48,12 @@ class SubscriptionServiceTest {
     @Mock
     private PlanRepository planRepository;
 
+    @Mock
+    private SubscriptionExpiryIndex expiryIndex;
+
+    @Spy
+    private ActiveSubscriptionCache activeSubscriptionCache = new ActiveSubscriptionCache(100, 60_000L, 30_000L);
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -121,6 +132,7 @@ class SubscriptionServiceTest {
         verify(planRepository).findById(1L);
         verify(subscriptionRepository).findActiveSubscriptionByUserId(1L);
         verify(subscriptionRepository).save(any(Subscription.class));
+        verify(expiryIndex).scheduleAfterCommit(3L, response.getEndDate());
     }
 
     @Test
@@ -167,75 +179,91 @@ class SubscriptionServiceTest {
     }
 
     @Test
-    void testGetUserSubscriptions() {
+    void testCreateSubscription_ConcurrentDuplicateRejectedByConstraint() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(subscriptionRepository.findByUserOrderByCreatedAtDesc(testUser))
-            .thenReturn(List.of(activeSubscription, expiredSubscription));
+        when(planRepository.findById(1L)).thenReturn(Optional.of(testPlan));
+        when(subscriptionRepository.findActiveSubscriptionByUserId(1L)).thenReturn(Optional.empty());
+        when(subscriptionRepository.save(any(Subscription.class)))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'active_user_id'"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> subscriptionService.createSubscription(subscriptionRequest));
+
+        assertThat(exception.getMessage()).isEqualTo("User already has an active subscription");
+        verify(expiryIndex, never()).scheduleAfterCommit(any(), any());
+    }
+
+    @Test
+    void testGetUserSubscriptions() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(subscriptionRepository.findResponsesByUserId(1L))
+            .thenReturn(List.of(toResponse(activeSubscription), toResponse(expiredSubscription)));
 
         List<SubscriptionResponse> responses = subscriptionService.getUserSubscriptions(1L);
 
         assertThat(responses).hasSize(2);
         assertThat(responses).extracting(SubscriptionResponse::getUserId).containsOnly(1L);
-        verify(userRepository).findById(1L);
-        verify(subscriptionRepository).findByUserOrderByCreatedAtDesc(testUser);
+        verify(userRepository).existsById(1L);
+        verify(subscriptionRepository).findResponsesByUserId(1L);
     }
 
     @Test
     void testGetUserSubscriptions_UserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class, () -> {
             subscriptionService.getUserSubscriptions(1L);
         });
 
-        verify(userRepository).findById(1L);
-        verify(subscriptionRepository, never()).findByUserOrderByCreatedAtDesc(any());
+        verify(userRepository).existsById(1L);
+        verify(subscriptionRepository, never()).findResponsesByUserId(any());
     }
 
     @Test
     void testGetActiveSubscription_Success() {
-        when(subscriptionRepository.findActiveSubscriptionByUserId(1L)).thenReturn(Optional.of(activeSubscription));
+        when(subscriptionRepository.findActiveResponseByUserId(1L)).thenReturn(Optional.of(toResponse(activeSubscription)));
 
         SubscriptionResponse response = subscriptionService.getActiveSubscription(1L);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
         assertThat(response.getUserId()).isEqualTo(1L);
-        verify(subscriptionRepository).findActiveSubscriptionByUserId(1L);
+        verify(subscriptionRepository).findActiveResponseByUserId(1L);
     }
 
     @Test
     void testGetActiveSubscription_NotFound() {
-        when(subscriptionRepository.findActiveSubscriptionByUserId(1L)).thenReturn(Optional.empty());
+        when(subscriptionRepository.findActiveResponseByUserId(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             subscriptionService.getActiveSubscription(1L);
         });
 
-        verify(subscriptionRepository).findActiveSubscriptionByUserId(1L);
+        verify(subscriptionRepository).findActiveResponseByUserId(1L);
     }
 
     @Test
     void testGetAllSubscriptions() {
-        when(subscriptionRepository.findAll()).thenReturn(List.of(activeSubscription, expiredSubscription));
+        when(subscriptionRepository.findResponsesAfter(any(), any(), any()))
+            .thenReturn(List.of(toResponse(activeSubscription), toResponse(expiredSubscription)));
 
-        List<SubscriptionResponse> responses = subscriptionService.getAllSubscriptions();
+        List<SubscriptionResponse> responses = subscriptionService.getAllSubscriptions(null, 50).getItems();
 
         assertThat(responses).hasSize(2);
         assertThat(responses).extracting(SubscriptionResponse::getId).contains(1L, 2L);
-        verify(subscriptionRepository).findAll();
+        verify(subscriptionRepository, never()).findAll();
     }
 
     @Test
     void testGetSubscriptionsByStatus() {
-        when(subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE))
-            .thenReturn(List.of(activeSubscription));
+        when(subscriptionRepository.findResponsesByStatus(SubscriptionStatus.ACTIVE))
+            .thenReturn(List.of(toResponse(activeSubscription)));
 
         List<SubscriptionResponse> responses = subscriptionService.getSubscriptionsByStatus(SubscriptionStatus.ACTIVE);
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
-        verify(subscriptionRepository).findByStatus(SubscriptionStatus.ACTIVE);
+        verify(subscriptionRepository).findResponsesByStatus(SubscriptionStatus.ACTIVE);
     }
 
     @Test
@@ -248,6 +276,7 @@ class SubscriptionServiceTest {
         assertThat(response.getStatus()).isEqualTo(SubscriptionStatus.CANCELLED);
         verify(subscriptionRepository).findById(1L);
         verify(subscriptionRepository).save(any(Subscription.class));
+        verify(expiryIndex).cancelAfterCommit(1L);
     }
 
     @Test
@@ -272,6 +301,28 @@ class SubscriptionServiceTest {
         assertThat(activeSubscription.getStatus()).isEqualTo(SubscriptionStatus.CANCELLED);
         verify(subscriptionRepository).findById(1L);
         verify(subscriptionRepository).save(any(Subscription.class));
+        verify(expiryIndex).cancelAfterCommit(1L);
+    }
+
+    @Test
+    void testGetActiveSubscription_ServedFromCacheUntilCancelled() {
+        when(subscriptionRepository.findActiveResponseByUserId(1L))
+            .thenReturn(Optional.of(toResponse(activeSubscription)))
+            .thenReturn(Optional.empty());
+        when(subscriptionRepository.findById(1L)).thenReturn(Optional.of(activeSubscription));
+        when(subscriptionRepository.save(any(Subscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        subscriptionService.getActiveSubscription(1L);
+        subscriptionService.getActiveSubscription(1L);
+        verify(subscriptionRepository, times(1)).findActiveResponseByUserId(1L);
+
+        subscriptionService.cancelSubscription(1L);
+        assertThrows(ResourceNotFoundException.class, () -> subscriptionService.getActiveSubscription(1L));
+        assertThrows(ResourceNotFoundException.class, () -> subscriptionService.getActiveSubscription(1L));
+
+        // The "no active subscription" answer is cached as well
+        verify(subscriptionRepository, times(2)).findActiveResponseByUserId(1L);
+        verify(activeSubscriptionCache).invalidate(1L);
     }
 
     @Test
@@ -286,6 +337,7 @@ class SubscriptionServiceTest {
         assertThat(expiredSubscription.getEndDate()).isAfter(expiredSubscription.getStartDate());
         verify(subscriptionRepository).findById(1L);
         verify(subscriptionRepository).save(any(Subscription.class));
+        verify(expiryIndex).scheduleAfterCommit(1L, expiredSubscription.getEndDate());
     }
 
 //    @Test
@@ -324,6 +376,43 @@ class SubscriptionServiceTest {
 //        verify(subscriptionRepository, times(1)).save(any(Subscription.class));
 //    }
 
+    @Test
+    void testProcessExpiredSubscriptions_UpdatesInChunks() {
+        ReflectionTestUtils.setField(subscriptionService, "expiryChunkSize", 2);
+        when(subscriptionRepository.findExpiredSubscriptionIds(any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(subscriptionRepository.findExpiredSubscriptionIds(any(LocalDateTime.class), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(5L));
+        when(subscriptionRepository.expireSubscriptions(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+        when(subscriptionRepository.expireSubscriptions(eq(List.of(5L)), any(LocalDateTime.class))).thenReturn(1);
+
+        int expired = subscriptionService.processExpiredSubscriptions();
+
+        assertThat(expired).isEqualTo(3);
+        verify(subscriptionRepository, times(2)).expireSubscriptions(any(), any(LocalDateTime.class));
+        verify(subscriptionRepository, never()).save(any(Subscription.class));
+    }
+
+    @Test
+    void testProcessExpiredSubscriptions_NothingToExpire() {
+        when(subscriptionRepository.findExpiredSubscriptionIds(any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThat(subscriptionService.processExpiredSubscriptions()).isZero();
+        verify(subscriptionRepository, never()).expireSubscriptions(any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testBackfillActiveUserIdsClaimsOneByOneAfterConflict() {
+        when(subscriptionRepository.findUnclaimedActiveIds(any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(subscriptionRepository.claimActiveUser(List.of(1L, 2L))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(subscriptionRepository.claimActiveUser(List.of(1L))).thenReturn(1);
+        when(subscriptionRepository.claimActiveUser(List.of(2L))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThat(subscriptionService.backfillActiveUserIds()).isEqualTo(1);
+        verify(subscriptionRepository).findUnclaimedActiveIds(any(Pageable.class));
+    }
+
     @Test
     void testGetTotalActiveSubscriptions() {
         when(subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE)).thenReturn(5L);
@@ -362,13 +451,17 @@ class SubscriptionServiceTest {
 
     @Test
     void testGetUserSubscriptions_EmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(subscriptionRepository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(subscriptionRepository.findResponsesByUserId(1L)).thenReturn(List.of());
 
         List<SubscriptionResponse> responses = subscriptionService.getUserSubscriptions(1L);
 
         assertThat(responses).isEmpty();
-        verify(userRepository).findById(1L);
-        verify(subscriptionRepository).findByUserOrderByCreatedAtDesc(testUser);
+        verify(userRepository).existsById(1L);
+        verify(subscriptionRepository).findResponsesByUserId(1L);
+    }
+
+    private SubscriptionResponse toResponse(Subscription subscription) {
+        return subscriptionService.convertToSubscriptionResponse(subscription);
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.skylink.service;
+
+import com.skylink.dao.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    private final Date inOneHour = new Date(System.currentTimeMillis() + 3_600_000L);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testUnknownTokenIsAnsweredByFilterWithoutQuery() {
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenReturn(List.of("revoked-1"));
+        tokenRevocationService.rebuild();
+
+        assertFalse(tokenRevocationService.isRevoked("never-revoked"));
+        verify(revokedTokenRepository, never()).existsByJti(anyString());
+    }
+
+    @Test
+    void testFilterHitIsConfirmedAgainstDatabase() {
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenReturn(List.of("revoked-1"));
+        when(revokedTokenRepository.existsByJti("revoked-1")).thenReturn(true);
+        tokenRevocationService.rebuild();
+
+        assertTrue(tokenRevocationService.isRevoked("revoked-1"));
+        verify(revokedTokenRepository).existsByJti("revoked-1");
+    }
+
+    @Test
+    void testChecksGoToDatabaseBeforeFirstRebuild() {
+        when(revokedTokenRepository.existsByJti("jti")).thenReturn(true);
+
+        assertTrue(tokenRevocationService.isRevoked("jti"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+
+    @Test
+    void testRevokePersistsAndUpdatesFilter() {
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenRevocationService.rebuild();
+
+        when(revokedTokenRepository.insert(eq("new-jti"), any(), any())).thenReturn(1);
+
+        assertTrue(tokenRevocationService.revoke("new-jti", inOneHour));
+        when(revokedTokenRepository.existsByJti("new-jti")).thenReturn(true);
+
+        assertTrue(tokenRevocationService.isRevoked("new-jti"));
+        assertFalse(tokenRevocationService.revoke("new-jti", inOneHour));
+        verify(revokedTokenRepository, times(1)).insert(eq("new-jti"), any(), any());
+    }
+
+    @Test
+    void testConcurrentRevokeLosesOnUniqueJti() {
+        when(revokedTokenRepository.insert(eq("jti"), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate jti"));
+
+        assertFalse(tokenRevocationService.revoke("jti", inOneHour));
+        assertEquals(0L, tokenRevocationService.getStats().get("jwt.revocation.revoked"));
+    }
+
+    @Test
+    void testSyncPicksUpRevocationsFromOtherNodes() {
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenRevocationService.rebuild();
+        assertFalse(tokenRevocationService.isRevoked("elsewhere"));
+
+        when(revokedTokenRepository.findUnexpiredJtisRevokedSince(any(), any())).thenReturn(List.of("elsewhere"));
+        when(revokedTokenRepository.existsByJti("elsewhere")).thenReturn(true);
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked("elsewhere"));
+    }
+
+    @Test
+    void testRevokeDuringRebuildQueryIsNotBlockedOrLost() {
+        when(revokedTokenRepository.insert(eq("during-rebuild"), any(), any())).thenReturn(1);
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            // Another request logs out while the table is being read
+            CompletableFuture<Boolean> logout = CompletableFuture.supplyAsync(
+                    () -> tokenRevocationService.revoke("during-rebuild", inOneHour));
+            assertTrue(logout.get(5, TimeUnit.SECONDS));
+            return List.of();
+        });
+
+        tokenRevocationService.rebuild();
+
+        when(revokedTokenRepository.existsByJti("during-rebuild")).thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked("during-rebuild"));
+        assertEquals(1L, tokenRevocationService.getStats().get("jwt.revocation.filterEntries"));
+    }
+
+    @Test
+    void testSyncWaitsForFirstRebuild() {
+        tokenRevocationService.sync();
+
+        verify(revokedTokenRepository, never()).findUnexpiredJtisRevokedSince(any(), any());
+    }
+
+    @Test
+    void testRevokeIgnoresExpiredTokens() {
+        assertFalse(tokenRevocationService.revoke("old-jti", new Date(System.currentTimeMillis() - 1_000L)));
+
+        verify(revokedTokenRepository, never()).insert(any(), any(), any());
+    }
+
+    @Test
+    void testRebuildPurgesExpiredRows() {
+        when(revokedTokenRepository.findUnexpiredJtis(any(LocalDateTime.class))).thenReturn(List.of("a", "b"));
+
+        tokenRevocationService.rebuild();
+
+        verify(revokedTokenRepository).deleteExpired(any(LocalDateTime.class));
+        Map<String, Long> stats = tokenRevocationService.getStats();
+        assertEquals(2L, stats.get("jwt.revocation.filterEntries"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.skylink.service;
+
+import com.skylink.dao.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenVersionService = new TokenVersionService(100);
+        ReflectionTestUtils.setField(tokenVersionService, "userRepository", userRepository);
+    }
+
+    private UserRepository.TokenState state(int version, boolean active) {
+        UserRepository.TokenState state = mock(UserRepository.TokenState.class);
+        when(state.getTokenVersion()).thenReturn(version);
+        when(state.getActive()).thenReturn(active);
+        return state;
+    }
+
+    @Test
+    void testCurrentTokenIsAcceptedAndStateIsCached() {
+        UserRepository.TokenState state = state(2, true);
+        when(userRepository.findTokenStateById(1L)).thenReturn(Optional.of(state));
+
+        assertTrue(tokenVersionService.isTokenCurrent(1L, 2));
+        assertTrue(tokenVersionService.isTokenCurrent(1L, 2));
+
+        verify(userRepository, times(1)).findTokenStateById(1L);
+    }
+
+    @Test
+    void testOldVersionIsRejected() {
+        UserRepository.TokenState state = state(3, true);
+        when(userRepository.findTokenStateById(1L)).thenReturn(Optional.of(state));
+
+        assertFalse(tokenVersionService.isTokenCurrent(1L, 2));
+    }
+
+    @Test
+    void testInactiveOrMissingUserIsRejected() {
+        UserRepository.TokenState state = state(0, false);
+        when(userRepository.findTokenStateById(1L)).thenReturn(Optional.of(state));
+        when(userRepository.findTokenStateById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(tokenVersionService.isTokenCurrent(1L, 0));
+        assertFalse(tokenVersionService.isTokenCurrent(2L, 0));
+        assertFalse(tokenVersionService.isTokenCurrent(null, 0));
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        UserRepository.TokenState activeState = state(0, true);
+        UserRepository.TokenState inactiveState = state(1, false);
+        when(userRepository.findTokenStateById(1L))
+                .thenReturn(Optional.of(activeState))
+                .thenReturn(Optional.of(inactiveState));
+
+        assertTrue(tokenVersionService.isTokenCurrent(1L, 0));
+        tokenVersionService.invalidate(1L);
+        assertFalse(tokenVersionService.isTokenCurrent(1L, 0));
+    }
+}
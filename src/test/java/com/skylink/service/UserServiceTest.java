@@ -4,12 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,21 +21,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.skylink.dao.UserRepository;
+import com.skylink.dto.CursorPage;
 import com.skylink.dto.LoginRequest;
+import com.skylink.dto.LoginResponse;
 import com.skylink.dto.SignupRequest;
 import com.skylink.dto.UserResponse;
 import com.skylink.entity.Role;
 import com.skylink.entity.User;
+import com.skylink.exception.InvalidRequestException;
+import com.skylink.exception.InvalidTokenException;
 import com.skylink.exception.ResourceNotFoundException;
 import com.skylink.exception.UserAlreadyExistsException;
+import com.skylink.util.KeysetCursor;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -50,6 +62,15 @@ class UserServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private UserService userService;
 
@@ -86,6 +107,17 @@ class UserServiceTest {
         assertThat(userDetails).isNotNull();
         assertThat(userDetails.getUsername()).isEqualTo("john@example.com");
         verify(userRepository).findByEmail("john@example.com");
+        verify(principalCache).put("john@example.com", testUser);
+    }
+
+    @Test
+    void testLoadUserByUsername_CacheHit() {
+        when(principalCache.get("john@example.com")).thenReturn(testUser);
+
+        UserDetails userDetails = userService.loadUserByUsername("john@example.com");
+
+        assertThat(userDetails).isSameAs(testUser);
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -99,6 +131,18 @@ class UserServiceTest {
         verify(userRepository).findByEmail("nonexistent@example.com");
     }
 
+    @Test
+    void testUpdatePassword_StoresRehashAndInvalidatesCache() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserDetails updated = userService.updatePassword(testUser, "{bcrypt}newHash");
+
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}newHash");
+        assertThat(testUser.getTokenVersion()).isEqualTo(0);
+        verify(principalCache).invalidate("john@example.com");
+    }
+
     @Test
     void testSignup_Success() {
         when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
@@ -174,49 +218,148 @@ class UserServiceTest {
         verify(jwtService).generateToken(testUser);
     }
 
+    @Test
+    void testAuthenticate_ReturnsTokenAndProfileFromPrincipal() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(testUser, null);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+            .thenReturn(authentication);
+        when(jwtService.generateToken(testUser)).thenReturn("jwtToken");
+        when(jwtService.generateRefreshToken(testUser)).thenReturn("refreshToken");
+
+        LoginResponse response = userService.authenticate(loginRequest);
+
+        assertThat(response.getToken()).isEqualTo("jwtToken");
+        assertThat(response.getRefreshToken()).isEqualTo("refreshToken");
+        assertThat(response.getUser().getId()).isEqualTo(1L);
+        assertThat(response.getUser().getEmail()).isEqualTo("john@example.com");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testRefresh_RotatesRefreshToken() {
+        Claims claims = refreshClaims(0);
+        when(jwtService.parseClaims("refresh-token")).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(true);
+        when(jwtService.extractTokenId(claims)).thenReturn("jti-1");
+        when(jwtService.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        when(jwtService.generateToken(testUser)).thenReturn("new-access");
+        when(jwtService.generateRefreshToken(testUser)).thenReturn("new-refresh");
+        when(tokenRevocationService.revoke("jti-1", claims.getExpiration())).thenReturn(true);
+
+        LoginResponse response = userService.refresh("refresh-token");
+
+        assertThat(response.getToken()).isEqualTo("new-access");
+        assertThat(response.getRefreshToken()).isEqualTo("new-refresh");
+        verify(tokenRevocationService).revoke("jti-1", claims.getExpiration());
+    }
+
+    @Test
+    void testRefresh_LosingConcurrentRefreshIsRejected() {
+        Claims claims = refreshClaims(0);
+        when(jwtService.parseClaims("refresh-token")).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(true);
+        when(jwtService.extractTokenId(claims)).thenReturn("jti-1");
+        when(jwtService.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        // Passed isRevoked, but another request revoked the token first
+        when(tokenRevocationService.revoke("jti-1", claims.getExpiration())).thenReturn(false);
+
+        assertThrows(InvalidTokenException.class, () -> userService.refresh("refresh-token"));
+        verify(jwtService, never()).generateRefreshToken(any(User.class));
+    }
+
+    @Test
+    void testRefresh_RejectsAccessToken() {
+        Claims claims = refreshClaims(0);
+        when(jwtService.parseClaims("access-token")).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(false);
+
+        assertThrows(InvalidTokenException.class, () -> userService.refresh("access-token"));
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void testRefresh_RejectsTokenIssuedBeforeVersionBump() {
+        testUser.setTokenVersion(1);
+        Claims claims = refreshClaims(0);
+        when(jwtService.parseClaims("refresh-token")).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(true);
+        when(jwtService.extractTokenId(claims)).thenReturn("jti-1");
+        when(jwtService.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+
+        assertThrows(InvalidTokenException.class, () -> userService.refresh("refresh-token"));
+        verify(tokenRevocationService, never()).revoke(anyString(), any(Date.class));
+    }
+
+    @Test
+    void testLogout_RevokesBothTokens() {
+        Claims access = refreshClaims(0).setId("jti-access");
+        Claims refresh = refreshClaims(0).setId("jti-refresh");
+        when(jwtService.parseClaims("access-token")).thenReturn(access);
+        when(jwtService.parseClaims("refresh-token")).thenReturn(refresh);
+        when(jwtService.extractTokenId(access)).thenReturn("jti-access");
+        when(jwtService.extractTokenId(refresh)).thenReturn("jti-refresh");
+
+        userService.logout("access-token", "refresh-token");
+
+        verify(tokenRevocationService).revoke("jti-access", access.getExpiration());
+        verify(tokenRevocationService).revoke("jti-refresh", refresh.getExpiration());
+    }
+
+    private Claims refreshClaims(int version) {
+        Claims claims = Jwts.claims().setSubject("john@example.com");
+        claims.put("ver", version);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000L));
+        return claims;
+    }
+
     @Test
     void testGetUserById_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(userService.convertToUserResponse(testUser)));
 
         UserResponse response = userService.getUserById(1L);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(1L);
         assertThat(response.getEmail()).isEqualTo("john@example.com");
-        verify(userRepository).findById(1L);
+        verify(userRepository).findResponseById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void testGetUserById_NotFound() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.getUserById(999L);
         });
 
-        verify(userRepository).findById(999L);
+        verify(userRepository).findResponseById(999L);
     }
 
     @Test
     void testGetUserByEmail_Success() {
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findResponseByEmail("john@example.com"))
+            .thenReturn(Optional.of(userService.convertToUserResponse(testUser)));
 
         UserResponse response = userService.getUserByEmail("john@example.com");
 
         assertThat(response).isNotNull();
         assertThat(response.getEmail()).isEqualTo("john@example.com");
-        verify(userRepository).findByEmail("john@example.com");
+        verify(userRepository).findResponseByEmail("john@example.com");
     }
 
     @Test
     void testGetUserByEmail_NotFound() {
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findResponseByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.getUserByEmail("nonexistent@example.com");
         });
 
-        verify(userRepository).findByEmail("nonexistent@example.com");
+        verify(userRepository).findResponseByEmail("nonexistent@example.com");
     }
 
     @Test
@@ -224,14 +367,43 @@ class UserServiceTest {
         User adminUser = new User("Admin", "admin@example.com", "0987654321", "adminpass", Role.ADMIN);
         adminUser.setId(2L);
 
-        when(userRepository.findAll()).thenReturn(List.of(testUser, adminUser));
+        when(userRepository.findResponsesAfter(any(), any(), any())).thenReturn(List.of(
+            userService.convertToUserResponse(testUser), userService.convertToUserResponse(adminUser)));
 
-        List<UserResponse> responses = userService.getAllUsers();
+        CursorPage<UserResponse> page = userService.getAllUsers(null, 50);
 
-        assertThat(responses).hasSize(2);
-        assertThat(responses).extracting(UserResponse::getEmail)
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getItems()).extracting(UserResponse::getEmail)
             .contains("john@example.com", "admin@example.com");
-        verify(userRepository).findAll();
+        assertThat(page.hasNext()).isFalse();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAllUsers_ReturnsCursorAfterLastItemAndCapsSize() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 1);
+        testUser.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        User adminUser = new User("Admin", "admin@example.com", "0987654321", "adminpass", Role.ADMIN);
+        adminUser.setId(2L);
+        adminUser.setCreatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        when(userRepository.findResponsesAfter(any(), any(), eq(PageRequest.of(0, 2)))).thenReturn(List.of(
+            userService.convertToUserResponse(testUser), userService.convertToUserResponse(adminUser)));
+
+        CursorPage<UserResponse> page = userService.getAllUsers(null, 100);
+
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsExactly(1L);
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next.getCreatedAt()).isEqualTo(testUser.getCreatedAt());
+        assertThat(next.getId()).isEqualTo(1L);
+
+        userService.getAllUsers(page.getNextCursor(), 1);
+        verify(userRepository).findResponsesAfter(testUser.getCreatedAt(), 1L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void testGetAllUsers_InvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> userService.getAllUsers("not-a-cursor", 10));
+        verify(userRepository, never()).findResponsesAfter(any(), any(), any());
     }
 
     @Test
@@ -239,13 +411,13 @@ class UserServiceTest {
         User adminUser = new User("Admin", "admin@example.com", "0987654321", "adminpass", Role.ADMIN);
         adminUser.setId(2L);
 
-        when(userRepository.findByRole(Role.ADMIN)).thenReturn(List.of(adminUser));
+        when(userRepository.findResponsesByRole(Role.ADMIN)).thenReturn(List.of(userService.convertToUserResponse(adminUser)));
 
         List<UserResponse> responses = userService.getUsersByRole(Role.ADMIN);
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getRole()).isEqualTo(Role.ADMIN);
-        verify(userRepository).findByRole(Role.ADMIN);
+        verify(userRepository).findResponsesByRole(Role.ADMIN);
     }
 
     @Test
@@ -276,6 +448,10 @@ class UserServiceTest {
         verify(userRepository).existsByMobileNumber("1111111111");
         verify(passwordEncoder).encode("newpassword");
         verify(userRepository).save(any(User.class));
+        assertThat(testUser.getTokenVersion()).isEqualTo(1);
+        verify(tokenVersionService).invalidate(1L);
+        verify(principalCache).invalidate("john@example.com");
+        verify(principalCache).invalidate("john.updated@example.com");
     }
 
     @Test
@@ -299,6 +475,7 @@ class UserServiceTest {
         verify(userRepository, never()).existsByEmail(anyString()); // Should not check for same email
         verify(userRepository, never()).existsByMobileNumber(anyString()); // Should not check for same mobile
         verify(passwordEncoder, never()).encode(anyString()); // Should not encode password
+        assertThat(testUser.getTokenVersion()).isEqualTo(0); // Tokens stay valid
     }
 
     @Test
@@ -330,6 +507,10 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
         // Verify user is set to inactive
         assertThat(testUser.getActive()).isFalse();
+        // Verify previously issued tokens are revoked
+        assertThat(testUser.getTokenVersion()).isEqualTo(1);
+        verify(tokenVersionService).invalidate(1L);
+        verify(principalCache).invalidate("john@example.com");
     }
 
     @Test
@@ -344,6 +525,7 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
         // Verify user is set to active
         assertThat(testUser.getActive()).isTrue();
+        verify(principalCache).invalidate("john@example.com");
     }
 
     @Test
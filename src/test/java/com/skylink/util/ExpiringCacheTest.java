@@ -0,0 +1,110 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    @Test
+    void testGetReturnsValueUntilExpiry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("a", "value", 1_000L);
+
+        assertEquals("value", cache.get("a", 999L));
+        assertNull(cache.get("a", 1_000L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSizeIsBoundedAndEvictionsCounted() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3);
+        long farFuture = System.currentTimeMillis() + 60_000L;
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i, farFuture);
+        }
+
+        assertTrue(cache.size() <= 3);
+        assertEquals(7L, cache.getEvictions());
+        assertEquals(9, cache.get(9));
+    }
+
+    @Test
+    void testRecentlyReadEntrySurvivesEviction() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2);
+        cache.put("a", "a", Long.MAX_VALUE);
+        cache.put("b", "b", Long.MAX_VALUE);
+        cache.get("a");
+
+        cache.put("c", "c", Long.MAX_VALUE);
+
+        assertEquals("a", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("c", cache.get("c"));
+        assertEquals(1L, cache.getEvictions());
+    }
+
+    @Test
+    void testStaysBoundedUnderConcurrentUse() throws InterruptedException {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int key = (i * 31 + seed) % 500;
+                    if (cache.get(key) == null) {
+                        cache.put(key, key, Long.MAX_VALUE);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Evicting threads may overshoot the bound briefly; the next put brings it back
+        cache.put(-1, -1, Long.MAX_VALUE);
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void testExpiredEntriesAreSweptBeforeEvicting() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(2);
+        cache.put(1, 1, 0L);
+        cache.put(2, 2, 0L);
+        cache.put(3, 3, System.currentTimeMillis() + 60_000L);
+
+        assertEquals(0L, cache.getEvictions());
+        assertEquals(3, cache.get(3));
+    }
+
+    @Test
+    void testInvalidateAndStats() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("a", "value", Long.MAX_VALUE);
+
+        cache.get("a");
+        cache.invalidate("a");
+        cache.get("a");
+
+        Map<String, Long> stats = cache.stats("test");
+        assertEquals(1L, stats.get("test.hits"));
+        assertEquals(1L, stats.get("test.misses"));
+        assertEquals(50L, stats.get("test.hitRatePercent"));
+    }
+
+    @Test
+    void testZeroSizeDisablesCache() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(0);
+        cache.put("a", "value", Long.MAX_VALUE);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    // 8 slots per level, 3 levels: 512 ticks of 10 ms
+    private HierarchicalTimingWheel<String> newWheel() {
+        return new HierarchicalTimingWheel<>(10, 3, 3, 0L);
+    }
+
+    @Test
+    void testKeyFiresAtItsDeadline() {
+        HierarchicalTimingWheel<String> wheel = newWheel();
+        wheel.schedule("a", 55L);
+
+        assertTrue(wheel.advance(50L).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(60L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testKeysOnHigherLevelsCascadeDown() {
+        HierarchicalTimingWheel<String> wheel = newWheel();
+        wheel.schedule("near", 30L);
+        wheel.schedule("middle", 700L);
+        wheel.schedule("far", 4_000L);
+
+        List<String> fired = new ArrayList<>();
+        for (long now = 10; now <= 5_110; now += 10) {
+            for (String key : wheel.advance(now)) {
+                fired.add(key + "@" + now);
+            }
+        }
+
+        assertEquals(List.of("near@30", "middle@700", "far@4000"), fired);
+    }
+
+    @Test
+    void testCancelAndReschedule() {
+        HierarchicalTimingWheel<String> wheel = newWheel();
+        wheel.schedule("cancelled", 100L);
+        wheel.schedule("moved", 100L);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        wheel.schedule("moved", 300L);
+
+        assertTrue(wheel.advance(200L).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(300L));
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = newWheel();
+        wheel.advance(1_000L);
+        wheel.schedule("late", 500L);
+
+        assertEquals(List.of("late"), wheel.advance(1_010L));
+    }
+
+    @Test
+    void testDeadlineBeyondHorizonIsRejected() {
+        HierarchicalTimingWheel<String> wheel = newWheel();
+
+        assertEquals(5_110L, wheel.getHorizonMillis());
+        assertFalse(wheel.schedule("too-far", 6_000L));
+        assertFalse(wheel.contains("too-far"));
+    }
+
+    @Test
+    void testLargeJumpFiresEverythingDue() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 6, 4, 0L);
+        for (int i = 1; i <= 1_000; i++) {
+            wheel.schedule(i, i * 50L);
+        }
+
+        List<Integer> due = wheel.advance(25_000L);
+
+        assertEquals(500, due.size());
+        assertEquals(1, due.get(0));
+        assertEquals(500, due.get(due.size() - 1));
+        assertEquals(500, wheel.size());
+    }
+}
@@ -0,0 +1,112 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private static List<Long> ids(InvertedIndex.SearchResult result) {
+        return result.getHits().stream().map(InvertedIndex.Hit::getId).toList();
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(List.of("wi", "fi", "drops", "every", "5", "min"), InvertedIndex.tokenize("Wi-Fi drops  every 5 min!"));
+        assertEquals(List.of(), InvertedIndex.tokenize(null));
+        assertEquals(InvertedIndex.MAX_TERM_LENGTH, InvertedIndex.tokenize("x".repeat(500)).get(0).length());
+    }
+
+    @Test
+    void testRanksByTermFrequencyAndLength() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Router issue", "The router keeps rebooting, router light is red and the whole house has no signal");
+        index.put(2L, "Billing", "Charged twice this month");
+        index.put(3L, "Router", "Router router");
+        index.put(4L, "Slow speed", "Speed drops in the evening since the new router");
+
+        InvertedIndex.SearchResult result = index.search("router", 0, 10);
+
+        assertEquals(3, result.getTotalHits());
+        assertEquals(List.of(3L, 1L, 4L), ids(result));
+    }
+
+    @Test
+    void testRareTermsOutweighCommonOnes() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "internet down", "no internet");
+        index.put(2L, "internet slow", "internet fiber outage");
+        index.put(3L, "internet billing", "internet charge");
+
+        assertEquals(2L, index.search("internet outage", 0, 10).getHits().get(0).getId());
+    }
+
+    @Test
+    void testPrefixQuery() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Disconnected", "");
+        index.put(2L, "Disconnection every hour", "");
+        index.put(3L, "Discount not applied", "");
+        index.put(4L, "Connection", "");
+
+        assertEquals(List.of(1L, 2L), ids(index.search("disconn*", 0, 10)).stream().sorted().toList());
+        assertEquals(3, index.search("disc*", 0, 10).getTotalHits());
+        assertEquals(0, index.search("disconn", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDrops() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "modem broken", "");
+        index.put(1L, "router broken", "");
+
+        assertEquals(0, index.search("modem", 0, 10).getTotalHits());
+        assertEquals(List.of(1L), ids(index.search("router", 0, 10)));
+
+        index.remove(1L);
+        assertEquals(0, index.search("broken", 0, 10).getTotalHits());
+        assertEquals(0, index.size());
+        assertEquals(0, index.termCount());
+    }
+
+    @Test
+    void testPaging() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, "outage", "outage ".repeat((int) id));
+        }
+
+        InvertedIndex.SearchResult first = index.search("outage", 0, 10);
+        InvertedIndex.SearchResult third = index.search("outage", 20, 10);
+
+        assertEquals(25, first.getTotalHits());
+        assertEquals(25L, first.getHits().get(0).getId());
+        assertEquals(5, third.getHits().size());
+        assertEquals(1L, third.getHits().get(4).getId());
+        assertTrue(index.search("outage", 30, 10).getHits().isEmpty());
+        assertTrue(index.search("   ", 0, 10).getHits().isEmpty());
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Router issue", "router keeps rebooting");
+        index.put(2L, "Billing", "charged twice");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        InvertedIndex restored = InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.size(), restored.size());
+        assertEquals(index.termCount(), restored.termCount());
+        assertEquals(index.search("router charged", 0, 10).getHits().get(0).getScore(),
+                restored.search("router charged", 0, 10).getHits().get(0).getScore(), 1e-9);
+    }
+}
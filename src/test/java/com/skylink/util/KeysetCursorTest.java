@@ -0,0 +1,35 @@
+package com.skylink.util;
+
+import com.skylink.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTripKeepsNanos() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+        assertFalse(cursor.encode().contains("="));
+    }
+
+    @Test
+    void testMissingTokenStartsAtBeginning() {
+        assertSame(KeysetCursor.START, KeysetCursor.decode(null));
+        assertSame(KeysetCursor.START, KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void testMalformedTokenIsRejected() {
+        assertThrows(InvalidRequestException.class, () -> KeysetCursor.decode("%%%"));
+        assertThrows(InvalidRequestException.class, () -> KeysetCursor.decode("bm8tY29tbWE"));
+        assertThrows(InvalidRequestException.class, () -> KeysetCursor.decode("eCwx"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashLshTest {
+
+    private static final String OUTAGE = "No internet since this morning, the router shows a red light and nothing loads";
+
+    private static List<Long> ids(List<MinHashLsh.Match> matches) {
+        return matches.stream().map(MinHashLsh.Match::getId).toList();
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("wi fi drops every 5 min", MinHashLsh.normalize("  Wi-Fi   DROPS, every 5 min!!"));
+        assertEquals("", MinHashLsh.normalize("?! "));
+    }
+
+    @Test
+    void testFindsNearDuplicatesOnly() {
+        MinHashLsh lsh = new MinHashLsh(32, 4, 7);
+        lsh.put(1L, lsh.signature("Internet down", OUTAGE));
+        lsh.put(2L, lsh.signature("Billing", "I was charged twice for my plan this month, please refund"));
+        lsh.put(3L, lsh.signature("Slow speed", "Speed drops to under 1 Mbps every evening after 8 pm"));
+
+        int[] duplicate = lsh.signature("internet down!", "No internet since this morning. Router shows a red light, nothing loads.");
+        int[] unrelated = lsh.signature("Cancel", "Please cancel my subscription at the end of the billing period");
+
+        List<MinHashLsh.Match> matches = lsh.findSimilar(duplicate, 0.6);
+        assertEquals(List.of(1L), ids(matches));
+        assertTrue(matches.get(0).getSimilarity() > 0.7, "similarity " + matches.get(0).getSimilarity());
+        assertEquals(List.of(), lsh.findSimilar(unrelated, 0.6));
+    }
+
+    @Test
+    void testFindFirstStopsAtAnyMatch() {
+        MinHashLsh lsh = new MinHashLsh(32, 4, 7);
+        for (long id = 1; id <= 1_000; id++) {
+            lsh.put(id, lsh.signature("Internet down", OUTAGE + " #" + id));
+        }
+        lsh.put(5_000L, lsh.signature("Billing", "I was charged twice for my plan this month, please refund"));
+
+        MinHashLsh.Match match = lsh.findFirst(lsh.signature("internet down!", OUTAGE), 0.6);
+
+        assertNotNull(match);
+        assertTrue(match.getId() >= 1 && match.getId() <= 1_000);
+        assertTrue(match.getSimilarity() >= 0.6);
+        assertNull(lsh.findFirst(lsh.signature("Cancel", "Please cancel my subscription at the end of the billing period"), 0.6));
+    }
+
+    @Test
+    void testSimilarityEstimatesJaccard() {
+        MinHashLsh lsh = new MinHashLsh(64, 4, 11);
+        // Shares roughly half of its 5-character shingles with OUTAGE
+        int[] half = lsh.signature(OUTAGE.substring(0, 40) + " and the phone line is dead too, with a constant busy tone");
+
+        double similarity = MinHashLsh.similarity(lsh.signature(OUTAGE), half);
+
+        assertTrue(similarity > 0.25 && similarity < 0.65, "similarity " + similarity);
+        assertEquals(1.0, MinHashLsh.similarity(lsh.signature(OUTAGE), lsh.signature(OUTAGE.toUpperCase())));
+    }
+
+    @Test
+    void testPutReplacesAndRemove() {
+        MinHashLsh lsh = new MinHashLsh(32, 4, 7);
+        int[] outage = lsh.signature(OUTAGE);
+        lsh.put(1L, outage);
+        lsh.put(1L, lsh.signature("Billing", "Charged twice this month"));
+
+        assertEquals(List.of(), lsh.findSimilar(outage, 0.6));
+        lsh.put(2L, outage);
+        assertEquals(List.of(2L), ids(lsh.findSimilar(outage, 0.6)));
+
+        lsh.remove(2L);
+        lsh.remove(99L);
+        assertEquals(List.of(), lsh.findSimilar(outage, 0.6));
+        assertEquals(1, lsh.size());
+    }
+
+    @Test
+    void testShortBlankAndInvalidInput() {
+        MinHashLsh lsh = new MinHashLsh(8, 2, 7);
+        assertNull(lsh.signature(" - ", null));
+        assertNotNull(lsh.signature("tv"));
+        assertThrows(IllegalArgumentException.class, () -> lsh.put(1L, new int[3]));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashLsh(0, 4, 7));
+    }
+}
@@ -0,0 +1,71 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static void assertWithinRelativeError(double expected, double actual, double accuracy) {
+        assertTrue(Math.abs(actual - expected) <= expected * accuracy + 1e-9,
+                "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal, like resolution times: most within hours, a long tail into weeks
+            values[i] = Math.exp(8 + 2 * random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] {0.0, 0.5, 0.9, 0.99, 1.0}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            assertWithinRelativeError(exact, sketch.quantile(q), 0.01);
+        }
+        assertEquals(100_000, sketch.getCount());
+        assertTrue(sketch.bucketCount() < 2_000, "buckets: " + sketch.bucketCount());
+    }
+
+    @Test
+    void testMergeMatchesSingleSketch() {
+        QuantileSketch all = new QuantileSketch(0.01);
+        QuantileSketch left = new QuantileSketch(0.01);
+        QuantileSketch right = new QuantileSketch(0.01);
+        for (int i = 1; i <= 10_000; i++) {
+            all.add(i);
+            (i % 3 == 0 ? left : right).add(i);
+        }
+
+        left.merge(right);
+
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMax(), left.getMax());
+        for (double q : new double[] {0.1, 0.5, 0.95}) {
+            assertEquals(all.quantile(q), left.quantile(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.05)));
+    }
+
+    @Test
+    void testZeroAndEmpty() {
+        QuantileSketch sketch = new QuantileSketch(0.02);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.add(100);
+
+        assertEquals(0, sketch.quantile(0.5));
+        assertWithinRelativeError(100, sketch.quantile(1.0), 0.02);
+        assertEquals(0, sketch.getMin());
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+}
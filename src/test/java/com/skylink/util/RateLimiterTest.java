@@ -0,0 +1,46 @@
+package com.skylink.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void testBurstIsAllowedThenRejected() {
+        RateLimiter limiter = new RateLimiter(3, 60);
+
+        assertEquals(0, limiter.tryAcquire("key", 0L));
+        assertEquals(0, limiter.tryAcquire("key", 0L));
+        assertEquals(0, limiter.tryAcquire("key", 0L));
+        assertEquals(1_000L, limiter.tryAcquire("key", 0L));
+    }
+
+    @Test
+    void testPermitsRefillAtConfiguredRate() {
+        RateLimiter limiter = new RateLimiter(1, 60);
+
+        assertEquals(0, limiter.tryAcquire("key", 0L));
+        assertTrue(limiter.tryAcquire("key", 500L) > 0);
+        assertEquals(0, limiter.tryAcquire("key", 1_000L));
+    }
+
+    @Test
+    void testKeysAreIndependent() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+
+        assertEquals(0, limiter.tryAcquire("a", 0L));
+        assertEquals(0, limiter.tryAcquire("b", 0L));
+        assertTrue(limiter.tryAcquire("a", 0L) > 0);
+    }
+
+    @Test
+    void testCleanupDropsRefilledBuckets() {
+        RateLimiter limiter = new RateLimiter(2, 60);
+        limiter.tryAcquire("idle", 0L);
+        limiter.tryAcquire("busy", 10_000L);
+
+        assertEquals(1, limiter.cleanup(5_000L));
+        assertEquals(1, limiter.size());
+    }
+}